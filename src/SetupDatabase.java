@@ -1,3 +1,4 @@
+import db.Schema;
 import java.sql.*;
 
 /**
@@ -18,32 +19,15 @@ public class SetupDatabase {
             
             // Create database if it doesn't exist
             stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS university_db");
-            stmt.executeUpdate("USE university_db"); // Switch to the database
+            conn.setCatalog("university_db"); // Switch to the database (also tells the driver)
             
-            // Create students table with proper structure
-            String createTable = """
-                CREATE TABLE IF NOT EXISTS students (
-                    id INT PRIMARY KEY AUTO_INCREMENT,
-                    name VARCHAR(100) NOT NULL,
-                    age INT NOT NULL,
-                    email VARCHAR(100) UNIQUE NOT NULL,
-                    course VARCHAR(100) NOT NULL,
-                    grade VARCHAR(2),
-                    registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                )
-                """;
-            stmt.executeUpdate(createTable);
+            // Create the students and tombstone tables (adds change tracking to old tables)
+            if (Schema.create(conn)) {
+                System.out.println("✅ Added change tracking column to existing 'students' table");
+            }
             
             // Insert sample student records (only if they don't exist)
-            String insertData = """
-                INSERT IGNORE INTO students (name, age, email, course, grade) VALUES
-                ('John Doe', 20, 'john.doe@university.edu', 'Computer Science', 'A'),
-                ('Jane Smith', 21, 'jane.smith@university.edu', 'Mathematics', 'B+'),
-                ('Robert Johnson', 22, 'robert.johnson@university.edu', 'Physics', 'A-'),
-                ('Emily Williams', 19, 'emily.williams@university.edu', 'Chemistry', 'B'),
-                ('Michael Brown', 20, 'michael.brown@university.edu', 'Engineering', 'C+')
-                """;
-            stmt.executeUpdate(insertData);
+            Schema.insertSampleData(conn);
             
             // Success messages
             System.out.println("✅ Database 'university_db' created/verified");
@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.Locale;
+
+/**
+ * Measurements of one benchmark at one size.
+ * <p>
+ * All three modes come from the same timed iterations: throughput
+ * (ops/s, with the spread between iterations), average time (ns/op) and
+ * allocation (bytes allocated per op, and MB/s).
+ * </p>
+ */
+public class BenchmarkResult {
+    private final String name;        // e.g. "index.search"
+    private final String param;       // Data size, or "-" for benchmarks without one
+    private final double opsPerSecond;
+    private final double errorPercent; // Standard deviation between iterations, % of mean
+    private final double bytesPerOp;   // -1 if the JVM cannot measure allocation
+    
+    public BenchmarkResult(String name, String param, double opsPerSecond, double errorPercent, double bytesPerOp) {
+        this.name = name;
+        this.param = param;
+        this.opsPerSecond = opsPerSecond;
+        this.errorPercent = errorPercent;
+        this.bytesPerOp = bytesPerOp;
+    }
+    
+    public String getName() { return name; }
+    public String getParam() { return param; }
+    public double getOpsPerSecond() { return opsPerSecond; }
+    public double getErrorPercent() { return errorPercent; }
+    public double getNanosPerOp() { return opsPerSecond == 0 ? 0 : 1e9 / opsPerSecond; }
+    public double getBytesPerOp() { return bytesPerOp; }
+    
+    /**
+     * Allocation rate while the benchmark ran.
+     * @return MB allocated per second, or -1 if unknown
+     */
+    public double getAllocMbPerSecond() {
+        return bytesPerOp < 0 ? -1 : bytesPerOp * opsPerSecond / (1024 * 1024);
+    }
+    
+    /**
+     * Key used to match this result against a baseline.
+     * @return name and param
+     */
+    public String getKey() {
+        return name + " " + param;
+    }
+    
+    /**
+     * Formats the result as one tab-separated line of a results file.
+     * @return name, param, ops/s, error %, ns/op, bytes/op
+     */
+    public String toTsv() {
+        return String.format(Locale.ROOT, "%s\t%s\t%.1f\t%.1f\t%.1f\t%.1f",
+            name, param, opsPerSecond, errorPercent, getNanosPerOp(), bytesPerOp);
+    }
+    
+    /**
+     * Parses a line written by {@link #toTsv()}.
+     * @param line Results file line
+     * @return Parsed result
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static BenchmarkResult fromTsv(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length < 6) throw new IllegalArgumentException("Not a benchmark result line: " + line);
+        try {
+            return new BenchmarkResult(fields[0], fields[1], Double.parseDouble(fields[2]),
+                Double.parseDouble(fields[3]), Double.parseDouble(fields[5]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a benchmark result line: " + line, e);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-28s %9s %14.1f ops/s ±%5.1f%% %14.1f ns/op %12s B/op %10s MB/s",
+            name, param, opsPerSecond, errorPercent, getNanosPerOp(),
+            bytesPerOp < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", bytesPerOp),
+            bytesPerOp < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", getAllocMbPerSecond()));
+    }
+}
@@ -0,0 +1,116 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one benchmark: warm-up, then timed iterations on the calling thread.
+ * <p>
+ * The operation is called in a loop and the clock is read every few calls,
+ * so fast operations are not dominated by System.nanoTime(). Allocation is
+ * measured with the per-thread allocated-bytes counter of
+ * com.sun.management.ThreadMXBean, which HotSpot keeps anyway.
+ * </p>
+ */
+public class BenchmarkRunner {
+    /**
+     * One benchmarked operation.
+     */
+    public interface Operation {
+        void run(Blackhole blackhole) throws Exception;
+    }
+    
+    private static final long BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_BATCH = 1 << 20;
+    
+    private final long warmupNanos;
+    private final int iterations;
+    private final long iterationNanos;
+    private final Blackhole blackhole = new Blackhole();
+    private final com.sun.management.ThreadMXBean threads;
+    
+    /**
+     * @param warmupMillis Time to run before measuring (lets the JIT compile)
+     * @param iterations Number of measured iterations
+     * @param iterationMillis Length of each measured iteration
+     */
+    public BenchmarkRunner(long warmupMillis, int iterations, long iterationMillis) {
+        this.warmupNanos = TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        this.iterations = iterations;
+        this.iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threads = null; // Not HotSpot - allocation is reported as n/a
+        }
+    }
+    
+    /**
+     * Measures an operation.
+     * @param name Benchmark name
+     * @param param Data size or other parameter ("-" if none)
+     * @param operation Operation to call repeatedly
+     * @return Throughput, average time and allocation
+     */
+    public BenchmarkResult run(String name, String param, Operation operation) throws Exception {
+        measure(operation, warmupNanos); // Results thrown away
+        
+        double[] opsPerSecond = new double[iterations];
+        long totalOps = 0;
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long[] opsAndNanos = measure(operation, iterationNanos);
+            totalOps += opsAndNanos[0];
+            opsPerSecond[i] = opsAndNanos[0] * 1e9 / opsAndNanos[1];
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        
+        double mean = 0;
+        for (double value : opsPerSecond) mean += value;
+        mean /= iterations;
+        double variance = 0;
+        for (double value : opsPerSecond) variance += (value - mean) * (value - mean);
+        double errorPercent = iterations < 2 || mean == 0 ? 0 : Math.sqrt(variance / (iterations - 1)) * 100 / mean;
+        double bytesPerOp = threads == null || totalOps == 0 ? -1 : (double) allocated / totalOps;
+        return new BenchmarkResult(name, param, mean, errorPercent, bytesPerOp);
+    }
+    
+    /**
+     * Checksum of everything the benchmarks produced.
+     * @return Blackhole checksum
+     */
+    public int getChecksum() {
+        return blackhole.checksum();
+    }
+    
+    /**
+     * Calls the operation until the time is up.
+     * @return {operations, elapsed nanoseconds}
+     */
+    private long[] measure(Operation operation, long durationNanos) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        long ops = 0;
+        int batch = 1; // Calls between clock reads; doubled until a batch takes about 1 ms
+        long batchStart = start;
+        long now;
+        do {
+            for (int i = 0; i < batch; i++) {
+                operation.run(blackhole);
+            }
+            ops += batch;
+            now = System.nanoTime();
+            if (now - batchStart < BATCH_NANOS && batch < MAX_BATCH) batch *= 2;
+            batchStart = now;
+        } while (now < deadline);
+        return new long[] {ops, now - start};
+    }
+    
+    private long allocatedBytes() {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
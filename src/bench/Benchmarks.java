@@ -0,0 +1,221 @@
+package bench;
+
+import db.DatabaseConnection;
+import db.StudentDAO;
+import model.Grade;
+import model.Student;
+import model.StudentColumnStore;
+import service.StudentSearchIndex;
+import service.Validator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Micro-benchmarks for the validator, model, in-memory index/store and DAO
+ * hot paths, with comparison against a saved baseline.
+ * <p>
+ * Run from the compiled classes (the heap must hold the largest data set):
+ * </p>
+ * <pre>
+ * java -Xmx3g -cp out:mysql-connector-j.jar bench.Benchmarks
+ * </pre>
+ * <p>
+ * Settings (system properties):
+ * </p>
+ * <ul>
+ * <li>bench.filter - run only benchmarks whose name contains this text</li>
+ * <li>bench.sizes - data sizes for size-dependent benchmarks (default 1000,100000,1000000)</li>
+ * <li>bench.warmupMillis, bench.iterations, bench.iterationMillis - timing (default 2000, 5, 1000)</li>
+ * <li>bench.db=true - also run the DAO benchmarks. With the embedded backend
+ *     (-Ddb.backend=h2) the table is filled with generated students up to each
+ *     size in turn; on MySQL the table is only read, and the size is its current
+ *     row count.</li>
+ * <li>bench.out - write results to this file (same format as the baseline)</li>
+ * <li>bench.baseline - compare with this results file (default src/bench/baseline.tsv if present)</li>
+ * <li>bench.tolerance - throughput drop, in percent, reported as a regression (default 10). A noisy
+ *     benchmark is allowed more: twice the combined error% of the baseline and the new run.</li>
+ * </ul>
+ * <p>
+ * Exits with status 1 if any benchmark regressed against the baseline.
+ * </p>
+ */
+public class Benchmarks {
+    private static final String DEFAULT_BASELINE = "src/bench/baseline.tsv";
+    private static final String[] INDEX_BENCHMARKS = {"index.search", "index.put"};
+    private static final String[] STORE_BENCHMARKS = {"store.getPerson", "store.getPersonsPage", "store.countByCourse"};
+    private static final String[] DAO_BENCHMARKS = {"dao.findAll", "dao.findPage", "dao.searchByName"};
+    private static final String[] SEARCH_TERMS = {"john", "smi", "an", "lee", "martinez", "grace k", "zz"};
+    
+    private final String filter = System.getProperty("bench.filter", "");
+    private final BenchmarkRunner runner = new BenchmarkRunner(
+        Long.getLong("bench.warmupMillis", 2000L),
+        Integer.getInteger("bench.iterations", 5),
+        Long.getLong("bench.iterationMillis", 1000L));
+    private final List<BenchmarkResult> results = new ArrayList<>();
+    
+    public static void main(String[] args) throws Exception {
+        Benchmarks benchmarks = new Benchmarks();
+        benchmarks.runAll();
+        System.exit(benchmarks.report() ? 0 : 1);
+    }
+    
+    private void runAll() throws Exception {
+        System.out.println("⏱️ Benchmarks on Java " + System.getProperty("java.version") + ", "
+            + Runtime.getRuntime().availableProcessors() + " CPUs, max heap "
+            + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        runModelBenchmarks();
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : System.getProperty("bench.sizes", "1000,100000,1000000").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        for (int size : sizes) {
+            runSizedBenchmarks(size);
+        }
+        if (Boolean.getBoolean("bench.db") && anySelected(DAO_BENCHMARKS)) {
+            StudentDAO dao = new StudentDAO();
+            if (DatabaseConnection.getBackend().isEmbedded()) {
+                StudentLoader loader = new StudentLoader(42, 1000);
+                for (int size : sizes) {
+                    loader.fillTo(size); // Sizes ascending: each fill adds the difference
+                    runDaoBenchmarks(dao, String.valueOf(size));
+                }
+            } else {
+                runDaoBenchmarks(dao, String.valueOf(dao.count())); // Never write to a real database
+            }
+        }
+        System.out.println("(checksum " + runner.getChecksum() + ")");
+    }
+    
+    // ---------- Benchmarks ----------
+    
+    private void runModelBenchmarks() throws Exception {
+        List<Student> students = new StudentGenerator(42).generate(1024);
+        String[] emails = new String[students.size()];
+        String[] grades = new String[students.size()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = i % 8 == 0 ? "not-an-email" : students.get(i).getEmail(); // Some invalid
+            grades[i] = i % 2 == 0 ? Grade.labelOf(students.get(i).getGrade()) : " b+ "; // Some needing cleanup
+        }
+        int[] next = {0};
+        
+        run("validator.isValidEmail", "-", bh -> bh.consume(Validator.isValidEmail(emails[next[0]++ & 1023])));
+        run("student.getDisplayText", "-", bh -> bh.consume(students.get(next[0]++ & 1023).getDisplayText()));
+        run("grade.parse", "-", bh -> bh.consume(Grade.parse(grades[next[0]++ & 1023])));
+    }
+    
+    private void runSizedBenchmarks(int size) throws Exception {
+        if (!anySelected(INDEX_BENCHMARKS) && !anySelected(STORE_BENCHMARKS)) return; // Skip generating the data
+        List<Student> students = new StudentGenerator(42).generate(size);
+        String param = String.valueOf(size);
+        int[] next = {0};
+        
+        if (anySelected(INDEX_BENCHMARKS)) {
+            StudentSearchIndex index = new StudentSearchIndex(200);
+            students.forEach(index::put);
+            run("index.search", param, bh -> bh.consume(index.search(SEARCH_TERMS[next[0]++ % SEARCH_TERMS.length])));
+            
+            // Re-put existing students, as every bus poll does; half of them with a new name
+            List<Student> originals = students;
+            List<Student> renamed = new ArrayList<>(originals.size());
+            for (Student student : originals) {
+                Student copy = new Student(student);
+                if (copy.getId() % 2 == 0) copy.setName(copy.getName() + " Jr");
+                renamed.add(copy);
+            }
+            run("index.put", param, bh -> {
+                int i = next[0]++ % size;
+                index.put(((next[0] / size) & 1) == 0 ? renamed.get(i) : originals.get(i));
+            });
+            if (index.getSlotCount() > Math.max(1024, 2 * index.size()) + 1) {
+                throw new IllegalStateException("index.put leaks slots: " + index.getSlotCount()
+                    + " slots for " + index.size() + " students");
+            }
+        }
+        
+        if (anySelected(STORE_BENCHMARKS)) {
+            StudentColumnStore store = StudentColumnStore.of(students.iterator());
+            students = null; // Let the objects go; the store has its own copy
+            run("store.getPerson", param, bh -> bh.consume(store.getPerson(1 + (next[0]++ * 7919 & 0x7FFFFFFF) % size)));
+            run("store.getPersonsPage", param, bh -> bh.consume(store.getPersonsPage((next[0]++ * 7919 & 0x7FFFFFFF) % size, 50)));
+            run("store.countByCourse", param, bh -> bh.consume(store.countByCourse()));
+        }
+    }
+    
+    private void runDaoBenchmarks(StudentDAO dao, String param) throws Exception {
+        int[] next = {0};
+        run("dao.findAll", param, bh -> bh.consume(dao.findAll()));
+        run("dao.findPage", param, bh -> bh.consume(dao.findPage(0, 50)));
+        run("dao.searchByName", param, bh -> bh.consume(dao.searchByName(SEARCH_TERMS[next[0]++ % SEARCH_TERMS.length])));
+    }
+    
+    // ---------- Running and reporting ----------
+    
+    private boolean anySelected(String... names) {
+        for (String name : names) {
+            if (name.contains(filter)) return true;
+        }
+        return false;
+    }
+    
+    private void run(String name, String param, BenchmarkRunner.Operation operation) throws Exception {
+        if (!name.contains(filter)) return;
+        BenchmarkResult result = runner.run(name, param, operation);
+        results.add(result);
+        System.out.println(result);
+    }
+    
+    /**
+     * Writes the results file and compares with the baseline.
+     * @return false if any benchmark regressed
+     */
+    private boolean report() throws IOException {
+        String out = System.getProperty("bench.out");
+        if (out != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add("# name\tparam\tops/s\terror%\tns/op\tbytes/op  (Java " + System.getProperty("java.version")
+                + ", " + Runtime.getRuntime().availableProcessors() + " CPUs)");
+            for (BenchmarkResult result : results) lines.add(result.toTsv());
+            Files.write(Paths.get(out), lines, StandardCharsets.UTF_8);
+            System.out.println("💾 Results written to " + out);
+        }
+        
+        Path baselineFile = Paths.get(System.getProperty("bench.baseline", DEFAULT_BASELINE));
+        if (!Files.exists(baselineFile)) return true;
+        Map<String, BenchmarkResult> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(baselineFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            BenchmarkResult result = BenchmarkResult.fromTsv(line);
+            baseline.put(result.getKey(), result);
+        }
+        
+        double tolerance = Double.parseDouble(System.getProperty("bench.tolerance", "10"));
+        int regressions = 0;
+        System.out.println("📊 Compared with " + baselineFile + " (tolerance " + tolerance + "% or the noise, if larger):");
+        for (BenchmarkResult result : results) {
+            BenchmarkResult before = baseline.get(result.getKey());
+            if (before == null || before.getOpsPerSecond() == 0) continue;
+            double change = (result.getOpsPerSecond() / before.getOpsPerSecond() - 1) * 100;
+            // Iteration-to-iteration noise of both runs, roughly a 95% interval on the difference
+            double noise = 2 * Math.hypot(before.getErrorPercent(), result.getErrorPercent());
+            double allowed = Math.max(tolerance, noise);
+            boolean regressed = change < -allowed;
+            if (regressed) regressions++;
+            System.out.println(String.format(Locale.ROOT,
+                "  %s %-28s %9s %+7.1f%% throughput (allowed -%.1f%%), %.1f -> %.1f B/op",
+                regressed ? "⚠️" : "✅", result.getName(), result.getParam(), change, allowed,
+                before.getBytesPerOp(), result.getBytesPerOp()));
+        }
+        if (regressions > 0) {
+            System.out.println("❌ " + regressions + " benchmark(s) slower than the baseline");
+        }
+        return regressions == 0;
+    }
+}
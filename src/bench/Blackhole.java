@@ -0,0 +1,37 @@
+package bench;
+
+/**
+ * Sink for benchmark results, so the JIT cannot drop the work that
+ * produced them as dead code.
+ */
+public final class Blackhole {
+    private int sink; // Mixed into on every consume; read once at the end
+    
+    public void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+    
+    public void consume(int value) {
+        sink += value;
+    }
+    
+    public void consume(long value) {
+        sink += (int) (value ^ (value >>> 32));
+    }
+    
+    public void consume(boolean value) {
+        sink += value ? 1 : 0;
+    }
+    
+    public void consume(double value) {
+        consume(Double.doubleToRawLongBits(value));
+    }
+    
+    /**
+     * Combined value of everything consumed (printed so it is observably used).
+     * @return Checksum of consumed values
+     */
+    int checksum() {
+        return sink;
+    }
+}
@@ -0,0 +1,231 @@
+package bench;
+
+import db.DatabaseConnection;
+import metrics.LatencyHistogram;
+import model.Student;
+import service.StudentService;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded load test: replays a weighted mix of StudentService calls
+ * against the configured database and reports throughput and latency
+ * percentiles (p50/p99/p999) per operation.
+ * <pre>
+ * java -Ddb.backend=h2 -Dload.seed=1000000 -cp out:h2.jar bench.LoadDriver
+ * </pre>
+ * Settings (system properties):
+ * <ul>
+ * <li>load.threads - concurrent callers (default 8)</li>
+ * <li>load.warmupSeconds, load.durationSeconds - timing (default 5, 30)</li>
+ * <li>load.mix - operation weights (default get=55,page=20,search=10,update=10,add=4,state=1)</li>
+ * <li>load.seed - first fill the table to this many students with the generator (default 0)</li>
+ * <li>load.searchIndex=true - build the in-memory search index before starting</li>
+ * </ul>
+ */
+public class LoadDriver {
+    private static final String DEFAULT_MIX = "get=55,page=20,search=10,update=10,add=4,state=1";
+    private static final String[] SEARCH_TERMS = {"john", "smi", "an", "lee", "martinez", "grace k", "uwi", "zz"};
+    
+    /**
+     * Operations the driver can call.
+     */
+    enum Operation { GET, PAGE, SEARCH, UPDATE, ADD, STATE }
+    
+    private final StudentService service;
+    private final int maxId;
+    private final Operation[] operations;
+    private final double[] cdf;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong emailSerial = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+    
+    LoadDriver(StudentService service, int maxId, Map<Operation, Double> mix) {
+        this.service = service;
+        this.maxId = maxId;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cdf = new double[operations.length];
+        double total = mix.values().stream().mapToDouble(Double::doubleValue).sum();
+        double running = 0;
+        for (int i = 0; i < operations.length; i++) {
+            running += mix.get(operations[i]);
+            cdf[i] = running / total;
+            latencies.put(operations[i], new LatencyHistogram());
+            errors.put(operations[i], new LongAdder());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("load.threads", 8);
+        long warmupSeconds = Long.getLong("load.warmupSeconds", 5L);
+        long durationSeconds = Long.getLong("load.durationSeconds", 30L);
+        Map<Operation, Double> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+        
+        int seedRows = Integer.getInteger("load.seed", 0);
+        if (seedRows > 0) {
+            new StudentLoader(42, 1000).fillTo(seedRows);
+        }
+        
+        StudentService service = new StudentService();
+        service.startChangePolling(); // Like a desk: writes come back through the invalidation bus
+        if (Boolean.getBoolean("load.searchIndex")) {
+            System.out.println("🔎 Building search index...");
+            service.buildSearchIndex();
+        }
+        int maxId = service.getTableState().getMaxId();
+        if (maxId == 0) {
+            System.err.println("❌ The students table is empty - add rows first (e.g. -Dload.seed=100000)");
+            System.exit(1);
+        }
+        
+        System.out.println("🚦 " + threads + " threads, mix " + mix + ", " + DatabaseConnection.getBackend()
+            + ", highest ID " + maxId + ": warming up " + warmupSeconds + " s, measuring " + durationSeconds + " s");
+        LoadDriver driver = new LoadDriver(service, maxId, mix);
+        long measuredNanos = driver.run(threads, warmupSeconds, durationSeconds);
+        driver.report(measuredNanos);
+        
+        service.close();
+        DatabaseConnection.getPool().shutdown();
+        System.exit(0); // Stop the service's background threads
+    }
+    
+    /**
+     * Runs the callers for the warm-up and measurement periods.
+     * @return Length of the measured period in nanoseconds
+     */
+    long run(int threadCount, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(this::callLoop, "load-" + t);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        measuring = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        measuring = false;
+        long measured = System.nanoTime() - start;
+        stopped = true;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        return measured;
+    }
+    
+    private void callLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StudentGenerator generator = new StudentGenerator(random.nextLong());
+        while (!stopped) {
+            Operation operation = pick(random.nextDouble());
+            long start = System.nanoTime();
+            try {
+                call(operation, random, generator);
+            } catch (Exception e) {
+                if (measuring) errors.get(operation).increment();
+                continue;
+            }
+            long nanos = System.nanoTime() - start;
+            if (measuring) latencies.get(operation).record(nanos);
+        }
+    }
+    
+    private void call(Operation operation, Random random, StudentGenerator generator) throws Exception {
+        switch (operation) {
+            case GET:
+                service.getPerson(1 + random.nextInt(maxId));
+                break;
+            case PAGE:
+                service.getPersonsPage(random.nextInt(maxId), 50);
+                break;
+            case SEARCH:
+                service.searchStudents(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+                break;
+            case UPDATE:
+                Student student = service.getPerson(1 + random.nextInt(maxId));
+                if (student != null) { // May have been deleted
+                    student.setAge(18 + random.nextInt(10));
+                    service.updatePerson(student);
+                }
+                break;
+            case ADD:
+                Student added = generator.next(0);
+                added.setEmail("load." + runId + "." + emailSerial.incrementAndGet() + "@university.edu"); // Unique per run
+                service.addPerson(added);
+                break;
+            case STATE:
+                service.getTableState();
+                break;
+        }
+    }
+    
+    private Operation pick(double value) {
+        for (int i = 0; i < cdf.length - 1; i++) {
+            if (value < cdf[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+    
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%-8s %10s %10s %10s %10s %10s %10s %10s %7s",
+            "op", "count", "ops/s", "mean", "p50", "p99", "p999", "max", "errors"));
+        long totalErrors = 0;
+        for (Operation operation : operations) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long errorCount = errors.get(operation).sum();
+            totalErrors += errorCount;
+            printRow(operation.name().toLowerCase(Locale.ROOT), histogram, seconds, errorCount);
+        }
+        long total = 0;
+        for (LatencyHistogram histogram : latencies.values()) total += histogram.getCount();
+        System.out.println(String.format(Locale.ROOT, "📈 Total %,.0f ops/s (%d ops in %.1f s), %d errors",
+            total / seconds, total, seconds, totalErrors));
+    }
+    
+    private static void printRow(String name, LatencyHistogram histogram, double seconds, long errorCount) {
+        long[] percentiles = histogram.getPercentilesNanos(50, 99, 99.9);
+        System.out.println(String.format(Locale.ROOT, "%-8s %10d %10.0f %10s %10s %10s %10s %10s %7d",
+            name, histogram.getCount(), histogram.getCount() / seconds,
+            millis(histogram.getMeanNanos()), millis(percentiles[0]),
+            millis(percentiles[1]), millis(percentiles[2]),
+            millis(histogram.getMaxNanos()), errorCount));
+    }
+    
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1e6);
+    }
+    
+    /**
+     * Parses "get=55,page=20,..." into operation weights.
+     */
+    static Map<Operation, Double> parseMix(String mix) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) throw new IllegalArgumentException("Bad load.mix entry '" + part + "' (use op=weight)");
+            Operation operation;
+            try {
+                operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation '" + pair[0].trim() + "' in load.mix");
+            }
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight > 0) weights.put(operation, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("load.mix has no operations");
+        return weights;
+    }
+}
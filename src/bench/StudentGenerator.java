@@ -0,0 +1,152 @@
+package bench;
+
+import model.Grade;
+import model.Student;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.text.Normalizer;
+
+/**
+ * Deterministic generator of realistic-looking students (same seed, same
+ * students), for benchmarks, load tests and test databases.
+ * <p>
+ * Names and courses follow skewed popularity (a few common names and
+ * courses, a long tail of rare ones). Most students are 18-24, with some
+ * mature students. Grades cluster around B, and some students have no
+ * grade yet. Emails are unique: each includes a serial number that is
+ * never repeated for one generator.
+ * </p>
+ */
+public class StudentGenerator {
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Robert", "Emily", "Michael", "Sarah", "David",
+        "Laura", "James", "Maria", "Daniel", "Anna", "Thomas", "Grace", "Samuel", "Aline", "Eric", "Claudine",
+        "Patrick", "Diane", "Jean", "Alice", "Kevin", "Olivia", "Peter", "Chloe", "Janvier", "Esther", "Moses",
+        "Ruth", "Emmanuel", "Divine", "Fabrice", "Sandrine", "Olivier", "Josiane", "Yves", "Béatrice", "Noah", "Zoë"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+        "Miller", "Davis", "Martinez", "Wilson", "Anderson", "Taylor", "Moore", "Jackson", "Martin", "Lee",
+        "Thompson", "White", "Harris", "Clark", "Lewis", "Walker", "Hall", "Allen", "Young", "King", "Doe",
+        "Muragijimana", "Uwimana", "Niyonzima", "Habimana", "Mukamana", "Nsengimana", "Ingabire", "Kamanzi",
+        "O'Brien", "Müller", "Nguyen", "Kowalski", "Dubois"};
+    private static final String[] COURSES = {"Computer Science", "Business Administration", "Medicine",
+        "Engineering", "Programming", "Economics", "Law", "Mathematics", "Biology", "Physics", "Chemistry",
+        "Statistics", "Architecture", "Education", "Nursing", "Philosophy"};
+    
+    // Grades best first (Grade ordinals), weighted so most students get a B or C
+    private static final Grade[] GRADES = Grade.values();
+    private static final double[] GRADE_WEIGHTS = {3, 8, 10, 14, 16, 13, 10, 8, 5, 3, 2, 1, 2};
+    private static final double UNGRADED_SHARE = 0.08;
+    private static final double MATURE_SHARE = 0.10; // Students aged 25-45
+    
+    private static final String[] FIRST_NAMES_ASCII = ascii(FIRST_NAMES); // For emails
+    private static final String[] LAST_NAMES_ASCII = ascii(LAST_NAMES);
+    
+    private static final double[] FIRST_NAME_CDF = zipfCdf(FIRST_NAMES.length);
+    private static final double[] LAST_NAME_CDF = zipfCdf(LAST_NAMES.length);
+    private static final double[] COURSE_CDF = zipfCdf(COURSES.length);
+    private static final double[] GRADE_CDF = cdf(GRADE_WEIGHTS);
+    
+    private final Random random;
+    private long nextSerial; // For emails of students without an ID
+    
+    public StudentGenerator(long seed) {
+        this(seed, 1);
+    }
+    
+    /**
+     * @param seed Random seed
+     * @param firstSerial First email serial number for students generated
+     *                    without an ID (start above the serials already in the
+     *                    database to keep emails unique across loads)
+     */
+    public StudentGenerator(long seed, long firstSerial) {
+        this.random = new Random(seed);
+        this.nextSerial = firstSerial;
+    }
+    
+    /**
+     * Generates the next student.
+     * @param id ID to give the student (0 for rows the database will number)
+     * @return New student; the email contains the ID, or the next serial if the ID is 0
+     */
+    public Student next(int id) {
+        int first = pick(FIRST_NAME_CDF);
+        int last = pick(LAST_NAME_CDF);
+        long serial = id > 0 ? id : nextSerial++;
+        String email = FIRST_NAMES_ASCII[first] + "." + LAST_NAMES_ASCII[last] + "." + serial + "@university.edu";
+        
+        int age = random.nextDouble() < MATURE_SHARE
+            ? 25 + random.nextInt(21)
+            : Math.max(17, Math.min(24, (int) Math.round(20 + random.nextGaussian() * 1.6)));
+        Grade grade = random.nextDouble() < UNGRADED_SHARE ? null : GRADES[pick(GRADE_CDF)];
+        return new Student(id, FIRST_NAMES[first] + " " + LAST_NAMES[last], age, email, COURSES[pick(COURSE_CDF)], grade);
+    }
+    
+    /**
+     * Generates students with IDs 1..count.
+     * @param count Number of students
+     * @return Students in ID order
+     */
+    public List<Student> generate(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            students.add(next(id));
+        }
+        return students;
+    }
+    
+    /**
+     * Generates students without IDs (for inserting; the database numbers them).
+     * @param count Number of students
+     * @return New students
+     */
+    public List<Student> generateNew(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(next(0));
+        }
+        return students;
+    }
+    
+    private int pick(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+    
+    /**
+     * Cumulative distribution where item k is chosen with weight 1/(k+1).
+     */
+    private static double[] zipfCdf(int n) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1.0 / (k + 1);
+        }
+        return cdf(weights);
+    }
+    
+    private static double[] cdf(double[] weights) {
+        double total = 0;
+        for (double weight : weights) total += weight;
+        double[] cdf = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i];
+            cdf[i] = running / total;
+        }
+        return cdf;
+    }
+    
+    /**
+     * Email-safe forms of names: lower case, accents dropped, other symbols removed.
+     */
+    private static String[] ascii(String[] names) {
+        String[] result = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            String plain = Normalizer.normalize(names[i], Normalizer.Form.NFD);
+            result[i] = plain.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+        }
+        return result;
+    }
+}
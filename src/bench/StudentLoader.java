@@ -0,0 +1,77 @@
+package bench;
+
+import db.DatabaseConnection;
+import db.StudentDAO;
+import db.TableState;
+import model.Student;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk-loads generated students into the configured database with
+ * multi-row INSERT statements.
+ * <pre>
+ * java -cp out:mysql-connector-j.jar bench.StudentLoader 1000000
+ * java -Ddb.backend=h2 -Ddb.h2.file=/tmp/uni -cp out:h2.jar bench.StudentLoader 1000000
+ * </pre>
+ * Settings: gen.seed (default 42), gen.rowsPerInsert (default 1000).
+ * Students are added to what is already in the table.
+ */
+public class StudentLoader {
+    private static final int CHUNK = 20_000; // Students generated per round of inserts
+    
+    private final StudentDAO dao = new StudentDAO();
+    private final int rowsPerInsert;
+    private final long seed;
+    
+    public StudentLoader(long seed, int rowsPerInsert) {
+        this.seed = seed;
+        this.rowsPerInsert = rowsPerInsert;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 1_000_000;
+        StudentLoader loader = new StudentLoader(Long.getLong("gen.seed", 42L),
+            Integer.getInteger("gen.rowsPerInsert", 1000));
+        System.out.println("🏭 Loading " + count + " students into " + DatabaseConnection.getBackend() + "...");
+        loader.load(count);
+        DatabaseConnection.getPool().shutdown();
+    }
+    
+    /**
+     * Inserts generated students until the table holds at least the given number of rows.
+     * @param rows Target row count
+     * @return Number of students inserted
+     */
+    public int fillTo(int rows) throws Exception {
+        int missing = rows - dao.count();
+        return missing > 0 ? load(missing) : 0;
+    }
+    
+    /**
+     * Generates and inserts students, printing progress.
+     * @param count Number of students to add
+     * @return Number of students inserted
+     */
+    public int load(int count) throws Exception {
+        TableState state = dao.getTableState();
+        // Email serials continue above the highest ID, so emails stay unique across loads
+        StudentGenerator generator = new StudentGenerator(seed + state.getMaxId(), state.getMaxId() + 1L);
+        
+        long start = System.nanoTime();
+        long lastReport = start;
+        int inserted = 0;
+        while (inserted < count) {
+            List<Student> chunk = generator.generateNew(Math.min(CHUNK, count - inserted));
+            inserted += dao.bulkInsert(chunk, rowsPerInsert);
+            long now = System.nanoTime();
+            if (now - lastReport > TimeUnit.SECONDS.toNanos(2) || inserted == count) {
+                lastReport = now;
+                System.out.printf("   %,d / %,d students (%,.0f rows/s)%n", inserted, count,
+                    inserted * 1e9 / (now - start));
+            }
+        }
+        System.out.printf("✅ Inserted %,d students in %.1f s%n", inserted, (System.nanoTime() - start) / 1e9);
+        return inserted;
+    }
+}
@@ -0,0 +1,40 @@
+package db;
+
+import model.Student;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Rows of the students table that changed since a watermark,
+ * as returned by {@link StudentDAO#findChangedSince(Timestamp)}.
+ */
+public class ChangeSet {
+    private final List<Student> changed;     // Inserted or updated rows, in ID order
+    private final List<Integer> deletedIds;  // IDs deleted (from the tombstone table)
+    private final Timestamp watermark;       // Pass to the next findChangedSince call
+    private final Timestamp oldestChange;    // Oldest change made after the previous watermark (null if none)
+    private final int rowCount;              // Current row count, or -1 when nothing was deleted
+    
+    public ChangeSet(List<Student> changed, List<Integer> deletedIds, Timestamp watermark,
+                     Timestamp oldestChange, int rowCount) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.oldestChange = oldestChange;
+        this.rowCount = rowCount;
+    }
+    
+    public List<Student> getChanged() { return changed; }
+    public List<Integer> getDeletedIds() { return deletedIds; }
+    public Timestamp getWatermark() { return watermark; }
+    public Timestamp getOldestChange() { return oldestChange; }
+    public int getRowCount() { return rowCount; }
+    
+    /**
+     * Checks whether anything changed.
+     * @return true if there are no changed or deleted rows
+     */
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,317 @@
+package db;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool.
+ * <p>
+ * Keeps between minSize and maxSize physical connections open, validates
+ * connections before handing them out, closes connections that sit idle
+ * too long, and makes callers wait (up to a timeout) when every connection
+ * is in use.
+ * </p>
+ */
+public class ConnectionPool {
+    // Borrow latency histogram shared by every pool; timeouts and failed opens count as errors
+    private static final OperationMetrics ACQUIRE = Metrics.operation("db.pool.acquire");
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // Most recently used at the head
+    private int totalConnections; // Idle + borrowed + currently being opened
+    private int waiters;          // Threads blocked in borrow()
+    private boolean shutdown;
+
+    // Statistics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password, PoolConfig config) {
+        if (config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("minSize (" + config.getMinSize() +
+                ") cannot exceed maxSize (" + config.getMaxSize() + ")");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+
+        // Background thread for idle eviction and keeping minSize connections warm
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+            0, config.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, opening a new one if the pool is below maxSize,
+     * or waiting up to borrowTimeoutMillis for one to be returned.
+     * @return Connection proxy; close() returns it to the pool
+     * @throws SQLTimeoutException if no connection became available in time
+     * @throws SQLException if opening a connection fails
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean openNew = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) throw new SQLException("Connection pool has been shut down");
+
+                    candidate = idle.pollFirst();
+                    if (candidate != null) break;
+
+                    if (totalConnections < config.getMaxSize()) {
+                        totalConnections++; // Reserve the slot before opening outside the lock
+                        openNew = true;
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.increment();
+                        ACQUIRE.recordFailure();
+                        throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis() +
+                            " ms waiting for a database connection (pool max size " + config.getMaxSize() + ")");
+                    }
+                    waiters++;
+                    try {
+                        released.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (openNew) {
+                try {
+                    candidate = open();
+                } catch (SQLException e) {
+                    ACQUIRE.recordFailure();
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isHealthy(candidate)) {
+                discard(candidate); // Broken connection - try the next one
+                continue;
+            }
+
+            recordBorrow(System.nanoTime() - start);
+            return candidate.lease();
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. Called by the connection proxy's close().
+     */
+    void release(PooledConnection pooled) {
+        try {
+            pooled.reset();
+        } catch (SQLException e) {
+            discard(pooled); // Could not clean it up - do not reuse
+            return;
+        }
+        pooled.touch();
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                totalConnections--;
+            } else {
+                idle.addFirst(pooled);
+                released.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        pooled.closeQuietly(); // Pool was shut down while the connection was borrowed
+        destroyed.increment();
+    }
+
+    /**
+     * Gets current pool statistics.
+     * @return Snapshot of pool counters
+     */
+    public PoolStats getStats() {
+        int idleCount;
+        int total;
+        int waiting;
+        lock.lock();
+        try {
+            idleCount = idle.size();
+            total = totalConnections;
+            waiting = waiters;
+        } finally {
+            lock.unlock();
+        }
+        long borrows = borrowCount.sum();
+        long avgMicros = borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(borrowNanos.sum() / borrows);
+        return new PoolStats(total - idleCount, idleCount, waiting, borrows, avgMicros,
+            TimeUnit.NANOSECONDS.toMicros(maxBorrowNanos.get()), timeouts.sum(), created.sum(), destroyed.sum(),
+            statementCacheHits.sum(), statementCacheMisses.sum());
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void shutdown() {
+        Deque<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (shutdown) return;
+            shutdown = true;
+            toClose = new ArrayDeque<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            released.signalAll(); // Wake waiters so they fail fast
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            pooled.closeQuietly();
+            destroyed.increment();
+        }
+    }
+
+    // ---------- Internal helpers ----------
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        created.increment();
+        StatementCache statementCache = config.getStatementCacheSize() > 0
+            ? new StatementCache(physical, config.getStatementCacheSize(), statementCacheHits, statementCacheMisses)
+            : null;
+        return new PooledConnection(this, physical, statementCache);
+    }
+
+    private boolean isHealthy(PooledConnection pooled) {
+        if (!config.isValidateOnBorrow()) return true;
+
+        // A connection used moments ago is almost certainly fine - skip the round trip
+        long idleNanos = System.nanoTime() - pooled.getLastUsedNanos();
+        if (idleNanos < TimeUnit.MILLISECONDS.toNanos(config.getValidationIntervalMillis())) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.closeQuietly();
+        destroyed.increment();
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            released.signal(); // A waiter may now open a new connection
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+        ACQUIRE.recordLatency(nanos);
+    }
+
+    /**
+     * Closes connections idle longer than idleTimeoutMillis (never going below
+     * minSize), then opens connections until minSize is reached.
+     */
+    private void housekeep() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        Deque<PooledConnection> expired = new ArrayDeque<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (shutdown) return;
+            // Least recently used connections are at the tail
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections > config.getMinSize()) {
+                PooledConnection pooled = it.next();
+                if (pooled.getLastUsedNanos() - cutoff >= 0) break;
+                it.remove();
+                totalConnections--;
+                expired.add(pooled);
+            }
+            missing = config.getMinSize() - totalConnections;
+            if (missing > 0) totalConnections += missing; // Reserve slots for the warm-up below
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : expired) {
+            pooled.closeQuietly();
+            destroyed.increment();
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pooled = open();
+                release(pooled);
+            } catch (SQLException e) {
+                // Database unreachable - give back the remaining slots and retry next run
+                lock.lock();
+                try {
+                    totalConnections -= missing - i;
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+}
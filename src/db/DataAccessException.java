@@ -0,0 +1,13 @@
+package db;
+
+/**
+ * Unchecked wrapper for database errors raised where a checked exception
+ * cannot be thrown (for example inside a Stream pipeline).
+ */
+public class DataAccessException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
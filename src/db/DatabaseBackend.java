@@ -0,0 +1,94 @@
+package db;
+
+import java.util.Locale;
+
+/**
+ * The SQL engines the application can run on, chosen with -Ddb.backend.
+ * <ul>
+ * <li>mysql (default) - the university MySQL server</li>
+ * <li>h2 - an embedded H2 database running inside the application in MySQL
+ *     compatibility mode: in memory by default, or in a file with
+ *     -Ddb.h2.file=path. The students schema is created on startup.
+ *     Needs the H2 jar on the classpath.</li>
+ * </ul>
+ * -Ddb.url, -Ddb.user and -Ddb.password override the connection settings of either backend.
+ */
+public enum DatabaseBackend {
+    MYSQL("com.mysql.cj.jdbc.Driver",
+          // useServerPrepStmts makes MySQL parse each prepared statement once per connection;
+          // together with the pool's statement cache, repeated queries skip parsing entirely.
+          // rewriteBatchedStatements sends each JDBC batch as multi-row statements.
+          "jdbc:mysql://localhost:3306/university_db?useServerPrepStmts=true&rewriteBatchedStatements=true",
+          "root", "",      // Default XAMPP username / password (empty)
+          Integer.MIN_VALUE, // Connector/J streams rows one at a time only with this fetch size
+          false),
+    H2("org.h2.Driver",
+       null,             // Built from db.h2.file, see getUrl()
+       "sa", "",
+       1000,             // Embedded: rows come straight from the engine, read ahead in chunks
+       true);
+
+    // IGNORECASE matches MySQL's default case-insensitive collation (LIKE, UNIQUE, ORDER BY)
+    private static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE";
+
+    private final String driverClass;
+    private final String defaultUrl;
+    private final String defaultUser;
+    private final String defaultPassword;
+    private final int streamFetchSize;
+    private final boolean embedded;
+
+    DatabaseBackend(String driverClass, String defaultUrl, String defaultUser, String defaultPassword,
+                    int streamFetchSize, boolean embedded) {
+        this.driverClass = driverClass;
+        this.defaultUrl = defaultUrl;
+        this.defaultUser = defaultUser;
+        this.defaultPassword = defaultPassword;
+        this.streamFetchSize = streamFetchSize;
+        this.embedded = embedded;
+    }
+
+    /**
+     * Reads the db.backend system property.
+     * @return Selected backend (MYSQL if not set)
+     * @throws IllegalArgumentException if the property names an unknown backend
+     */
+    public static DatabaseBackend fromSystemProperties() {
+        String name = System.getProperty("db.backend", "mysql").trim().toUpperCase(Locale.ROOT);
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown db.backend '" + name.toLowerCase(Locale.ROOT) +
+                "' (use mysql or h2)");
+        }
+    }
+
+    public String getDriverClass() { return driverClass; }
+    public boolean isEmbedded() { return embedded; }
+
+    /**
+     * Fetch size for statements that stream a large result row by row.
+     * @return JDBC fetch size hint
+     */
+    public int getStreamFetchSize() { return streamFetchSize; }
+
+    public String getUrl() {
+        String url = System.getProperty("db.url");
+        if (url != null) return url;
+        if (this == H2) {
+            String file = System.getProperty("db.h2.file");
+            return file != null
+                ? "jdbc:h2:file:" + file + H2_OPTIONS
+                : "jdbc:h2:mem:university_db" + H2_OPTIONS + ";DB_CLOSE_DELAY=-1"; // Lives until the JVM exits
+        }
+        return defaultUrl;
+    }
+
+    public String getUser() {
+        return System.getProperty("db.user", defaultUser);
+    }
+
+    public String getPassword() {
+        return System.getProperty("db.password", defaultPassword);
+    }
+}
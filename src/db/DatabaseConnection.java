@@ -4,37 +4,48 @@ import java.sql.*;
 
 /**
  * Database connection utility class.
- * Manages connection to the MySQL database.
+ * Manages a pool of connections to the configured database backend
+ * (MySQL by default, see {@link DatabaseBackend}).
  */
 public class DatabaseConnection {
-    // Database connection parameters
-    private static final String URL = "jdbc:mysql://localhost:3306/university_db";
-    private static final String USER = "root";      // Default XAMPP username
-    private static final String PASS = "";          // Default XAMPP password (empty)
+    // Database connection parameters (db.backend, db.url, db.user, db.password)
+    private static final DatabaseBackend BACKEND = DatabaseBackend.fromSystemProperties();
+    private static final String URL = BACKEND.getUrl();
+    private static final String USER = BACKEND.getUser();
+    private static final String PASS = BACKEND.getPassword();
+    
+    // Shared connection pool (settings come from db.pool.* system properties)
+    private static final ConnectionPool POOL;
     
     // Static block runs once when class is loaded
     static {
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("✅ MySQL Driver loaded successfully");
+            // Load the backend's JDBC driver (only the selected one needs to be on the classpath)
+            Class.forName(BACKEND.getDriverClass());
+            System.out.println("✅ " + BACKEND + " Driver loaded successfully");
         } catch (ClassNotFoundException e) {
-            System.err.println("❌ MySQL Driver not found!");
+            System.err.println("❌ " + BACKEND + " Driver not found! (" + BACKEND.getDriverClass() + ")");
             e.printStackTrace();
         }
+        
+        POOL = new ConnectionPool(URL, USER, PASS, PoolConfig.fromSystemProperties());
+        // Close pooled connections cleanly when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::shutdown, "db-pool-shutdown"));
+        
+        if (BACKEND.isEmbedded()) {
+            createEmbeddedSchema();
+        }
     }
     
     /**
-     * Gets a connection to the university_db database.
+     * Gets a pooled connection to the university_db database.
+     * Closing the connection returns it to the pool.
      * @return Connection object
-     * @throws SQLException if connection fails
+     * @throws SQLException if connection fails or the pool is exhausted
      */
     public static Connection getConnection() throws SQLException {
         try {
-            // Create and return database connection
-            Connection conn = DriverManager.getConnection(URL, USER, PASS);
-            System.out.println("✅ Connected to university_db database");
-            return conn;
+            return POOL.borrow(); // Reuses an idle connection when one is available
         } catch (SQLException e) {
             // Print detailed error information
             System.err.println("❌ Database connection failed!");
@@ -44,4 +55,36 @@ public class DatabaseConnection {
             throw e; // Re-throw exception for calling code
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Gets the backend the pool connects to.
+     * @return Selected database backend
+     */
+    public static DatabaseBackend getBackend() {
+        return BACKEND;
+    }
+    
+    /**
+     * Gets the shared connection pool (for statistics and shutdown).
+     * @return The application's connection pool
+     */
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+    
+    /**
+     * Creates the students schema in a fresh embedded database
+     * (-Ddb.embedded.sampleData=true also adds the sample students).
+     */
+    private static void createEmbeddedSchema() {
+        try (Connection conn = POOL.borrow()) {
+            Schema.create(conn);
+            if (Boolean.getBoolean("db.embedded.sampleData")) {
+                Schema.insertSampleData(conn);
+            }
+            System.out.println("✅ Embedded database ready: " + URL);
+        } catch (SQLException e) {
+            System.err.println("❌ Could not create the embedded database schema: " + e.getMessage());
+        }
+    }
+}
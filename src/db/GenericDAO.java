@@ -45,4 +45,36 @@ public interface GenericDAO<T extends Identifiable> {
      * @throws Exception If database operation fails
      */
     List<T> findAll() throws Exception;
+    
+    /**
+     * Find Page - Retrieve the next page of entities in ID order (keyset pagination).
+     * Pass the last ID of the previous page to continue; memory use depends only on the limit.
+     * @param afterId Return entities with an ID greater than this (0 for the first page)
+     * @param limit Maximum number of entities to return
+     * @return Up to limit entities ordered by ID
+     * @throws Exception If database operation fails
+     */
+    List<T> findPage(int afterId, int limit) throws Exception;
+    
+    /**
+     * Create All - Insert many entities using JDBC batches.
+     * Generated IDs are written back onto each entity.
+     * @param entities The entities to be created
+     * @throws Exception If database operation fails (chunks already committed stay committed)
+     */
+    void createAll(List<T> entities) throws Exception;
+    
+    /**
+     * Update All - Modify many existing entities using JDBC batches
+     * @param entities The entities with updated values (must have valid IDs)
+     * @throws Exception If database operation fails (chunks already committed stay committed)
+     */
+    void updateAll(List<T> entities) throws Exception;
+    
+    /**
+     * Delete All - Remove many entities by ID using JDBC batches
+     * @param ids The IDs of the entities to delete
+     * @throws Exception If database operation fails (chunks already committed stay committed)
+     */
+    void deleteAll(List<Integer> ids) throws Exception;
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package db;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import model.Student;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * StudentDAO that records latency, rows and errors of every call under
+ * "dao.*" in {@link Metrics}. Latency includes borrowing the connection,
+ * which is also recorded on its own as "db.pool.acquire".
+ * <p>
+ * Recording is lock-free and allocation-free, so this is the DAO the
+ * service uses by default.
+ * </p>
+ */
+public class MeteredStudentDAO extends StudentDAO {
+    private static final OperationMetrics CREATE = Metrics.operation("dao.create");
+    private static final OperationMetrics READ = Metrics.operation("dao.read");
+    private static final OperationMetrics UPDATE = Metrics.operation("dao.update");
+    private static final OperationMetrics DELETE = Metrics.operation("dao.delete");
+    private static final OperationMetrics FIND_ALL = Metrics.operation("dao.findAll");
+    private static final OperationMetrics FIND_PAGE = Metrics.operation("dao.findPage");
+    private static final OperationMetrics COUNT = Metrics.operation("dao.count");
+    private static final OperationMetrics TABLE_STATE = Metrics.operation("dao.getTableState");
+    private static final OperationMetrics CHANGED_SINCE = Metrics.operation("dao.findChangedSince");
+    private static final OperationMetrics PURGE_TOMBSTONES = Metrics.operation("dao.purgeTombstones");
+    private static final OperationMetrics ID_AT_OFFSET = Metrics.operation("dao.findIdAtOffset");
+    private static final OperationMetrics PAGE_BY_NAME = Metrics.operation("dao.findPageByName");
+    private static final OperationMetrics PAGE_BY_COURSE = Metrics.operation("dao.findPageByCourse");
+    private static final OperationMetrics STREAM = Metrics.operation("dao.stream");
+    private static final OperationMetrics CREATE_ALL = Metrics.operation("dao.createAll");
+    private static final OperationMetrics BULK_INSERT = Metrics.operation("dao.bulkInsert");
+    private static final OperationMetrics UPDATE_ALL = Metrics.operation("dao.updateAll");
+    private static final OperationMetrics DELETE_ALL = Metrics.operation("dao.deleteAll");
+    private static final OperationMetrics SEARCH_BY_NAME = Metrics.operation("dao.searchByName");
+    private static final OperationMetrics ALL_COURSES = Metrics.operation("dao.getAllCourses");
+
+    @Override
+    public void create(Student student) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.create(student);
+            CREATE.recordSuccess(start, 1);
+        } catch (Exception e) {
+            CREATE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public Student read(int id) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return READ.recordResult(start, super.read(id)); // 0 rows when not found
+        } catch (Exception e) {
+            READ.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void update(Student student) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.update(student);
+            UPDATE.recordSuccess(start, 1);
+        } catch (Exception e) {
+            UPDATE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(int id) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.delete(id);
+            DELETE.recordSuccess(start, 1);
+        } catch (Exception e) {
+            DELETE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> findAll() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return FIND_ALL.recordResult(start, super.findAll());
+        } catch (Exception e) {
+            FIND_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> findPage(int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return FIND_PAGE.recordResult(start, super.findPage(afterId, limit));
+        } catch (Exception e) {
+            FIND_PAGE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public int count() throws Exception {
+        long start = System.nanoTime();
+        try {
+            int count = super.count();
+            COUNT.recordSuccess(start, 1);
+            return count;
+        } catch (Exception e) {
+            COUNT.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public TableState getTableState() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return TABLE_STATE.recordResult(start, super.getTableState());
+        } catch (Exception e) {
+            TABLE_STATE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public ChangeSet findChangedSince(Timestamp watermark) throws Exception {
+        long start = System.nanoTime();
+        try {
+            ChangeSet changes = super.findChangedSince(watermark);
+            CHANGED_SINCE.recordSuccess(start, changes.getChanged().size() + changes.getDeletedIds().size());
+            return changes;
+        } catch (Exception e) {
+            CHANGED_SINCE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public int purgeTombstones(long maxAgeMillis) throws Exception {
+        long start = System.nanoTime();
+        try {
+            int purged = super.purgeTombstones(maxAgeMillis);
+            PURGE_TOMBSTONES.recordSuccess(start, purged);
+            return purged;
+        } catch (Exception e) {
+            PURGE_TOMBSTONES.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public int findIdAtOffset(int offset) throws Exception {
+        long start = System.nanoTime();
+        try {
+            int id = super.findIdAtOffset(offset);
+            ID_AT_OFFSET.recordSuccess(start, id < 0 ? 0 : 1);
+            return id;
+        } catch (Exception e) {
+            ID_AT_OFFSET.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> findPageByName(String afterName, int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return PAGE_BY_NAME.recordResult(start, super.findPageByName(afterName, afterId, limit));
+        } catch (Exception e) {
+            PAGE_BY_NAME.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> findPageByCourse(String afterCourse, int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return PAGE_BY_COURSE.recordResult(start, super.findPageByCourse(afterCourse, afterId, limit));
+        } catch (Exception e) {
+            PAGE_BY_COURSE.recordFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Recorded when the stream is closed: latency is the time the stream
+     * was open, rows the number of students read from it.
+     */
+    @Override
+    public Stream<Student> stream() throws Exception {
+        long start = System.nanoTime();
+        Stream<Student> students;
+        try {
+            students = super.stream();
+        } catch (Exception e) {
+            STREAM.recordFailure();
+            throw e;
+        }
+        long[] rows = new long[1]; // One per stream, not per row
+        return students.peek(student -> rows[0]++)
+                       .onClose(() -> STREAM.recordSuccess(start, rows[0]));
+    }
+
+    @Override
+    public void createAll(List<Student> students) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.createAll(students);
+            CREATE_ALL.recordSuccess(start, students.size());
+        } catch (Exception e) {
+            CREATE_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public int bulkInsert(List<Student> students, int rowsPerStatement) throws Exception {
+        long start = System.nanoTime();
+        try {
+            int inserted = super.bulkInsert(students, rowsPerStatement);
+            BULK_INSERT.recordSuccess(start, inserted);
+            return inserted;
+        } catch (Exception e) {
+            BULK_INSERT.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void updateAll(List<Student> students) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.updateAll(students);
+            UPDATE_ALL.recordSuccess(start, students.size());
+        } catch (Exception e) {
+            UPDATE_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteAll(List<Integer> ids) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.deleteAll(ids);
+            DELETE_ALL.recordSuccess(start, ids.size());
+        } catch (Exception e) {
+            DELETE_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    // searchByName(String) delegates here, so both overloads are recorded once
+    @Override
+    public List<Student> searchByName(String name, QueryHandle handle) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return SEARCH_BY_NAME.recordResult(start, super.searchByName(name, handle));
+        } catch (Exception e) {
+            SEARCH_BY_NAME.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> getAllCourses() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return ALL_COURSES.recordResult(start, super.getAllCourses());
+        } catch (Exception e) {
+            ALL_COURSES.recordFailure();
+            throw e;
+        }
+    }
+}
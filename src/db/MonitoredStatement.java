@@ -0,0 +1,214 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Times every execution of a statement and reports the slow ones to the
+ * {@link SlowQueryLog}.
+ * <p>
+ * Bound parameters are remembered as they are set, so a slow execution can
+ * be logged (and explained) with the values it ran with. Apart from the
+ * proxy call itself, a fast execution costs two clock reads and allocates
+ * nothing. For a slow query the result set is wrapped too, and
+ * the entry is logged when it is closed, once the row count is known.
+ * </p>
+ */
+class MonitoredStatement implements InvocationHandler {
+    private final ConnectionPool pool;
+    private final Statement statement;
+    private final String preparedSql;   // null for a plain Statement (SQL is passed to execute)
+    private Object[] parameters = new Object[8]; // By parameter index; index 0 unused
+    private int parameterCount;                  // Highest index set since the last clear
+
+    private MonitoredStatement(ConnectionPool pool, Statement statement, String preparedSql) {
+        this.pool = pool;
+        this.statement = statement;
+        this.preparedSql = preparedSql;
+    }
+
+    /**
+     * Wraps a prepared statement.
+     * @param pool Pool the statement's connection belongs to (used for EXPLAIN)
+     * @param statement Statement to time
+     * @param sql SQL the statement was prepared with
+     * @return Statement proxy
+     */
+    static PreparedStatement wrap(ConnectionPool pool, PreparedStatement statement, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            new MonitoredStatement(pool, statement, sql));
+    }
+
+    /**
+     * Wraps a plain statement; the SQL is taken from each execute call.
+     * @param pool Pool the statement's connection belongs to (used for EXPLAIN)
+     * @param statement Statement to time
+     * @return Statement proxy
+     */
+    static Statement wrap(ConnectionPool pool, Statement statement) {
+        return (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] { Statement.class },
+            new MonitoredStatement(pool, statement, null));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            return execute(method, args);
+        }
+        if (preparedSql != null) {
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                remember((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount + 1, null);
+                parameterCount = 0;
+            }
+        }
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "MonitoredStatement[" + statement + "]";
+            default:
+                return invokeTarget(statement, method, args);
+        }
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invokeTarget(statement, method, args);
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            if (SlowQueryLog.isSlow(elapsed)) {
+                SlowQueryLog.record(pool, sqlOf(args), parametersSnapshot(), -1, elapsed, e);
+            }
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!SlowQueryLog.isSlow(elapsed)) return result;
+
+        // Slow - log with the row count (queries: once the caller has read the rows)
+        String sql = sqlOf(args);
+        Object[] bound = parametersSnapshot();
+        if (result instanceof ResultSet) {
+            return CountingResultSet.wrap((ResultSet) result, pool, sql, bound, start);
+        }
+        SlowQueryLog.record(pool, sql, bound, rowCount(result), elapsed, null);
+        return result;
+    }
+
+    private void remember(int index, Object value) {
+        if (index < 1) return;
+        if (index >= parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+        }
+        parameters[index] = value;
+        parameterCount = Math.max(parameterCount, index);
+    }
+
+    private Object[] parametersSnapshot() {
+        return preparedSql == null ? null : Arrays.copyOf(parameters, parameterCount + 1);
+    }
+
+    private String sqlOf(Object[] args) {
+        if (preparedSql != null) return preparedSql;
+        return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "(batch)";
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Integer) return (Integer) result;
+        if (result instanceof Long) return (Long) result;
+        if (result instanceof int[]) {
+            long total = 0;
+            for (int count : (int[]) result) {
+                if (count > 0) total += count; // SUCCESS_NO_INFO (-2) adds nothing
+            }
+            return total;
+        }
+        if (result instanceof long[]) {
+            long total = 0;
+            for (long count : (long[]) result) {
+                if (count > 0) total += count;
+            }
+            return total;
+        }
+        return -1; // execute(): result is a boolean
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause(); // Surface the driver's own exception
+        }
+    }
+
+    /**
+     * Result set of a slow query: counts rows as they are read and logs the
+     * query when it is closed, with the time up to that point.
+     */
+    private static final class CountingResultSet implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final ConnectionPool pool;
+        private final String sql;
+        private final Object[] parameters;
+        private final long startNanos;
+        private long rows;
+        private boolean logged;
+
+        private CountingResultSet(ResultSet resultSet, ConnectionPool pool, String sql, Object[] parameters,
+                                  long startNanos) {
+            this.resultSet = resultSet;
+            this.pool = pool;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.startNanos = startNanos;
+        }
+
+        static ResultSet wrap(ResultSet resultSet, ConnectionPool pool, String sql, Object[] parameters,
+                              long startNanos) {
+            return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                new CountingResultSet(resultSet, pool, sql, parameters, startNanos));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    Object hasRow = invokeTarget(resultSet, method, args);
+                    if ((Boolean) hasRow) rows++;
+                    return hasRow;
+                case "close":
+                    if (!logged) {
+                        logged = true;
+                        SlowQueryLog.record(pool, sql, parameters, rows, System.nanoTime() - startNanos, null);
+                    }
+                    return invokeTarget(resultSet, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CountingResultSet[" + resultSet + "]";
+                default:
+                    return invokeTarget(resultSet, method, args);
+            }
+        }
+    }
+}
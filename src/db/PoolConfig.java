@@ -0,0 +1,76 @@
+package db;
+
+/**
+ * Settings for the {@link ConnectionPool}.
+ * Every value can be overridden with a system property, e.g. -Ddb.pool.maxSize=20
+ */
+public class PoolConfig {
+    private int minSize = 2;                        // Connections kept open even when idle
+    private int maxSize = 10;                       // Hard upper bound on open connections
+    private long idleTimeoutMillis = 300_000;       // Idle connections above minSize are closed after this
+    private long borrowTimeoutMillis = 5_000;       // How long a caller waits for a free connection
+    private long evictionIntervalMillis = 30_000;   // How often the housekeeper runs
+    private boolean validateOnBorrow = true;        // Check connection health before handing it out
+    private long validationIntervalMillis = 5_000;  // Skip validation if the connection was used this recently
+    private int validationTimeoutSeconds = 2;       // Timeout passed to Connection.isValid()
+    private int statementCacheSize = 32;            // Prepared statements cached per connection (0 = off)
+
+    /**
+     * Builds a configuration from the db.pool.* system properties,
+     * falling back to the defaults above.
+     * @return Configuration object
+     */
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(Integer.getInteger("db.pool.minSize", config.minSize));
+        config.setMaxSize(Integer.getInteger("db.pool.maxSize", config.maxSize));
+        config.setIdleTimeoutMillis(Long.getLong("db.pool.idleTimeoutMillis", config.idleTimeoutMillis));
+        config.setBorrowTimeoutMillis(Long.getLong("db.pool.borrowTimeoutMillis", config.borrowTimeoutMillis));
+        config.setEvictionIntervalMillis(Long.getLong("db.pool.evictionIntervalMillis", config.evictionIntervalMillis));
+        config.setValidateOnBorrow(Boolean.parseBoolean(
+            System.getProperty("db.pool.validateOnBorrow", String.valueOf(config.validateOnBorrow))));
+        config.setValidationIntervalMillis(Long.getLong("db.pool.validationIntervalMillis", config.validationIntervalMillis));
+        config.setValidationTimeoutSeconds(Integer.getInteger("db.pool.validationTimeoutSeconds", config.validationTimeoutSeconds));
+        config.setStatementCacheSize(Integer.getInteger("db.pool.statementCacheSize", config.statementCacheSize));
+        return config;
+    }
+
+    public int getMinSize() { return minSize; }
+    public void setMinSize(int minSize) {
+        if (minSize < 0) throw new IllegalArgumentException("minSize must not be negative");
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) { this.borrowTimeoutMillis = borrowTimeoutMillis; }
+
+    public long getEvictionIntervalMillis() { return evictionIntervalMillis; }
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+        if (evictionIntervalMillis <= 0) throw new IllegalArgumentException("evictionIntervalMillis must be positive");
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    public boolean isValidateOnBorrow() { return validateOnBorrow; }
+    public void setValidateOnBorrow(boolean validateOnBorrow) { this.validateOnBorrow = validateOnBorrow; }
+
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+    public void setValidationIntervalMillis(long validationIntervalMillis) { this.validationIntervalMillis = validationIntervalMillis; }
+
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must not be negative");
+        this.statementCacheSize = statementCacheSize;
+    }
+}
@@ -0,0 +1,54 @@
+package db;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} statistics.
+ */
+public class PoolStats {
+    private final int active;            // Connections currently borrowed
+    private final int idle;              // Connections waiting in the pool
+    private final int waiters;           // Threads blocked waiting for a connection
+    private final long borrowCount;      // Successful borrows since startup
+    private final long avgBorrowMicros;  // Average time spent inside borrow()
+    private final long maxBorrowMicros;  // Slowest borrow seen
+    private final long timeouts;         // Borrows that gave up waiting
+    private final long created;          // Physical connections opened
+    private final long destroyed;        // Physical connections closed
+    private final long statementCacheHits;   // Prepares served from a connection's statement cache
+    private final long statementCacheMisses; // Prepares that had to be parsed by the driver/server
+
+    public PoolStats(int active, int idle, int waiters, long borrowCount, long avgBorrowMicros,
+                     long maxBorrowMicros, long timeouts, long created, long destroyed,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.avgBorrowMicros = avgBorrowMicros;
+        this.maxBorrowMicros = maxBorrowMicros;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getWaiters() { return waiters; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getAvgBorrowMicros() { return avgBorrowMicros; }
+    public long getMaxBorrowMicros() { return maxBorrowMicros; }
+    public long getTimeouts() { return timeouts; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d waiters=%d borrows=%d avgBorrow=%dus maxBorrow=%dus " +
+                             "timeouts=%d created=%d destroyed=%d stmtCacheHits=%d stmtCacheMisses=%d",
+            active, idle, waiters, borrowCount, avgBorrowMicros, maxBorrowMicros, timeouts, created, destroyed,
+            statementCacheHits, statementCacheMisses);
+    }
+}
@@ -0,0 +1,138 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A physical database connection owned by a {@link ConnectionPool}.
+ * Each borrow hands out a fresh proxy; closing the proxy returns the
+ * physical connection to the pool instead of closing it. Prepared statements
+ * created through the proxy come from this connection's {@link StatementCache}
+ * and are timed by a {@link MonitoredStatement} while the {@link SlowQueryLog} is enabled.
+ */
+class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;    // The real JDBC connection
+    private final StatementCache statementCache; // null when statement caching is disabled
+    private volatile long lastUsedNanos;  // When the connection was last returned (or opened)
+
+    PooledConnection(ConnectionPool pool, Connection physical, StatementCache statementCache) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCache;
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    Connection getPhysical() { return physical; }
+
+    long getLastUsedNanos() { return lastUsedNanos; }
+    void touch() { lastUsedNanos = System.nanoTime(); }
+
+    /**
+     * Creates a proxy for one borrow of this connection.
+     * @return Connection proxy that returns itself to the pool on close()
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new Lease());
+    }
+
+    /**
+     * Puts the connection back into a clean state before it is reused.
+     * @throws SQLException if the connection is broken
+     */
+    void reset() throws SQLException {
+        if (statementCache != null) {
+            statementCache.reclaim(); // Statements the borrower forgot to close
+        }
+        if (!physical.getAutoCommit()) {
+            physical.rollback();          // Discard anything the borrower left uncommitted
+            physical.setAutoCommit(true);
+        }
+        physical.clearWarnings();
+    }
+
+    /**
+     * Closes the physical connection, ignoring errors.
+     */
+    void closeQuietly() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Invocation handler for a single borrow. Once close() has been called,
+     * the proxy refuses further use so a stale reference cannot touch a
+     * connection that has since been lent to someone else.
+     */
+    private class Lease implements InvocationHandler {
+        private boolean returned;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result = createOrInvoke(method, args);
+            if (SlowQueryLog.isEnabled()) {
+                // Time statements for the slow query log (EXPLAINs it issues are not timed again)
+                if (result instanceof PreparedStatement && !((String) args[0]).startsWith("EXPLAIN ")) {
+                    return MonitoredStatement.wrap(pool, (PreparedStatement) result, (String) args[0]);
+                }
+                if (result instanceof Statement && method.getName().equals("createStatement")) {
+                    return MonitoredStatement.wrap(pool, (Statement) result);
+                }
+            }
+            return result;
+        }
+
+        private Object createOrInvoke(Method method, Object[] args) throws Throwable {
+            if (statementCache != null && method.getName().equals("prepareStatement")) {
+                // Only the plain forms are cached; other overloads go straight to the driver
+                if (args.length == 1) {
+                    return statementCache.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                    return statementCache.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause(); // Surface the driver's own exception
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package db;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets another thread cancel a query while it is running.
+ * The DAO attaches the executing statement; cancel() then asks the
+ * database to abort it (Statement.cancel()) instead of waiting for it to finish.
+ */
+public class QueryHandle {
+    private Statement statement; // Statement currently executing, if any
+    private boolean cancelled;
+    
+    /**
+     * Registers the statement about to run.
+     * @throws SQLException if the handle was already cancelled (the query is skipped)
+     */
+    synchronized void attach(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query cancelled");
+        }
+        this.statement = statement;
+    }
+    
+    /**
+     * Clears the statement once the query has finished.
+     */
+    synchronized void detach() {
+        this.statement = null;
+    }
+    
+    /**
+     * Cancels the running query, or the next one if none has started yet.
+     * May block briefly while the driver contacts the server, so do not call it on the EDT.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // Query may have just finished - nothing left to cancel
+            }
+        }
+    }
+    
+    /**
+     * Checks whether cancel() has been called.
+     * @return true if cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,418 @@
+package db;
+
+import model.Grade;
+import model.Student;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Compact binary copy of the student roster, read through a memory-mapped file.
+ * <p>
+ * Opening a snapshot only maps the file and reads a 64-byte header, so the
+ * table can show rows immediately at startup whatever the roster size; each
+ * row is decoded when it is first painted. The snapshot records the database
+ * time it was taken at, so a delta sync
+ * ({@link StudentDAO#findChangedSince}) can bring it up to date afterwards.
+ * </p>
+ * <pre>
+ * Header (64 bytes, big-endian)
+ *   0  magic "STUSNAP1"        8
+ *   8  format version          4
+ *  12  row count               4
+ *  16  highest ID              4
+ *  20  string count            4
+ *  24  watermark (epoch ms)    8
+ *  32  string offsets position 8
+ *  40  string data position    8
+ *  48  file length             8   (detects a truncated file)
+ * Rows, in ID order, 24 bytes each:
+ *   id, age, name, email, course, grade (ints; strings are dictionary indexes,
+ *   the grade is a {@link Grade} ordinal; -1 = null, -2 - i = legacy text string i)
+ * String dictionary:
+ *   (string count + 1) int offsets into the data, then the UTF-8 data
+ * </pre>
+ * <p>
+ * Each distinct string is stored once, so repeated courses cost
+ * 4 bytes per row. Instances are immutable and safe to share between threads.
+ * </p>
+ */
+public class RosterSnapshot {
+    private static final byte[] MAGIC = "STUSNAP1".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 3; // 2: grades stored as ordinals, 3: plus legacy grade text
+    private static final int HEADER_SIZE = 64;
+    private static final int ROW_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int maxId;
+    private final int stringCount;
+    private final Timestamp watermark;
+    private final int offsetsPosition;
+    private final int dataPosition;
+    
+    private RosterSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.getInt(8) != VERSION) {
+            throw new IOException("Not a roster snapshot (or an unsupported version)");
+        }
+        if (buffer.getLong(48) != buffer.capacity()) {
+            throw new IOException("Roster snapshot is truncated");
+        }
+        this.rowCount = buffer.getInt(12);
+        this.maxId = buffer.getInt(16);
+        this.stringCount = buffer.getInt(20);
+        this.watermark = new Timestamp(buffer.getLong(24));
+        this.offsetsPosition = (int) buffer.getLong(32);
+        this.dataPosition = (int) buffer.getLong(40);
+        if ((long) HEADER_SIZE + (long) rowCount * ROW_SIZE != offsetsPosition
+                || offsetsPosition + (stringCount + 1L) * 4 != dataPosition) {
+            throw new IOException("Roster snapshot is corrupt");
+        }
+    }
+    
+    /**
+     * Reads a snapshot's watermark from its header without mapping the file,
+     * so a snapshot too old to use can be skipped without holding a mapping.
+     * @param file Snapshot file
+     * @return Database time the snapshot's data was current at
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Timestamp readWatermark(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) { } // Fill the header
+            if (header.hasRemaining()) throw new IOException("Roster snapshot is truncated");
+            byte[] magic = new byte[MAGIC.length];
+            header.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC) || header.getInt(8) != VERSION) {
+                throw new IOException("Not a roster snapshot (or an unsupported version)");
+            }
+            return new Timestamp(header.getLong(24));
+        }
+    }
+    
+    /**
+     * Finds the newest generation of a snapshot.
+     * Each save goes to a new file named {@code <base>.<generation>}, so a file
+     * that is still mapped is never replaced (Windows refuses to replace or
+     * delete a mapped file, and on other systems readers would see it change).
+     * A plain {@code <base>} file from older versions counts as generation 0.
+     * @param base Snapshot path as configured
+     * @return The newest snapshot file, or null if there is none
+     * @throws IOException if the directory cannot be listed
+     */
+    public static Path latestGeneration(Path base) throws IOException {
+        List<Path> generations = generations(base);
+        return generations.isEmpty() ? null : generations.get(generations.size() - 1);
+    }
+    
+    /**
+     * Picks the file the next snapshot should be written to.
+     * @param base Snapshot path as configured
+     * @return {@code <base>.<generation>}, one past the newest existing generation
+     * @throws IOException if the directory cannot be listed
+     */
+    public static Path nextGeneration(Path base) throws IOException {
+        Path latest = latestGeneration(base);
+        long generation = latest == null ? 1 : generationOf(base, latest) + 1;
+        return base.resolveSibling(base.getFileName() + "." + generation);
+    }
+    
+    /**
+     * Deletes the generations older than a snapshot just written.
+     * Files that cannot be deleted yet (still mapped, on Windows) are left
+     * for the next save to retry.
+     * @param base Snapshot path as configured
+     * @param current The generation to keep
+     */
+    public static void deleteOlderGenerations(Path base, Path current) {
+        try {
+            long keep = generationOf(base, current);
+            for (Path file : generations(base)) {
+                if (generationOf(base, file) >= keep) continue;
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Still in use - retried after the next save
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not clean up old roster snapshots: " + e.getMessage());
+        }
+    }
+    
+    /** Existing snapshot files for a base path, oldest generation first. */
+    private static List<Path> generations(Path base) throws IOException {
+        Path directory = base.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) return files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(file -> generationOf(base, file) >= 0 && Files.isRegularFile(file))
+                   .forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(file -> generationOf(base, file)));
+        return files;
+    }
+    
+    /** Generation number of a snapshot file: 0 for the base itself, -1 if it is not one. */
+    private static long generationOf(Path base, Path file) {
+        String baseName = base.getFileName().toString();
+        String name = file.getFileName().toString();
+        if (name.equals(baseName)) return 0;
+        if (!name.startsWith(baseName + ".")) return -1;
+        String suffix = name.substring(baseName.length() + 1);
+        if (suffix.isEmpty() || suffix.length() > 18 || !suffix.chars().allMatch(Character::isDigit)) return -1;
+        return Long.parseLong(suffix);
+    }
+    
+    /**
+     * Maps a snapshot file.
+     * @param file Snapshot file
+     * @return The snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static RosterSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Roster snapshot has an invalid size: " + size);
+            }
+            // The mapping stays valid after the channel is closed
+            return new RosterSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+    
+    public int getRowCount() { return rowCount; }
+    public int getMaxId() { return maxId; }
+    
+    /**
+     * Database time the snapshot's data was current at.
+     * @return Watermark for {@link StudentDAO#findChangedSince}
+     */
+    public Timestamp getWatermark() { return watermark; }
+    
+    /**
+     * Gets a student's ID without decoding the rest of the row.
+     * @param row Row index (0 to rowCount - 1)
+     * @return Student ID
+     */
+    public int getId(int row) {
+        return buffer.getInt(rowPosition(row));
+    }
+    
+    /**
+     * Decodes a row.
+     * @param row Row index (0 to rowCount - 1)
+     * @return A new Student with the row's values
+     */
+    public Student getStudent(int row) {
+        int at = rowPosition(row);
+        int gradeCode = buffer.getInt(at + 20);
+        Student student = new Student(buffer.getInt(at), string(buffer.getInt(at + 8)), buffer.getInt(at + 4),
+            string(buffer.getInt(at + 12)), string(buffer.getInt(at + 16)), Grade.fromOrdinal(Math.max(-1, gradeCode)));
+        if (gradeCode < -1) {
+            student.setGradeLabel(string(-2 - gradeCode)); // Legacy grade text kept in the string table
+        }
+        return student;
+    }
+    
+    /**
+     * Finds the row of a student. Rows are in ID order, so this is a binary search.
+     * @param id Student ID
+     * @return Row index, or -1 if the student is not in the snapshot
+     */
+    public int findRow(int id) {
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = getId(mid);
+            if (midId < id) low = mid + 1;
+            else if (midId > id) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+    
+    /**
+     * Checks whether a change set would leave the snapshot as it is, e.g. a
+     * change delivered again or already saved.
+     * @param changes Synced changes
+     * @return true if every changed student is in the snapshot with the same
+     *         values and no deleted student is in it
+     */
+    public boolean isCurrentWith(ChangeSet changes) {
+        for (int id : changes.getDeletedIds()) {
+            if (findRow(id) >= 0) return false;
+        }
+        for (Student changed : changes.getChanged()) {
+            int row = findRow(changed.getId());
+            if (row < 0) return false;
+            Student saved = getStudent(row);
+            if (saved.getAge() != changed.getAge()
+                    || !Objects.equals(saved.getName(), changed.getName())
+                    || !Objects.equals(saved.getEmail(), changed.getEmail())
+                    || !Objects.equals(saved.getCourse(), changed.getCourse())
+                    || !Objects.equals(saved.getGradeLabel(), changed.getGradeLabel())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private int rowPosition(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        return HEADER_SIZE + row * ROW_SIZE;
+    }
+    
+    private String string(int index) {
+        if (index < 0) return null;
+        int start = buffer.getInt(offsetsPosition + index * 4);
+        int end = buffer.getInt(offsetsPosition + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(dataPosition + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // ---------- Writing ----------
+    
+    /**
+     * Writes a snapshot, replacing the file once it is complete.
+     * @param students Every student, in ID order (e.g. from {@link StudentDAO#stream()})
+     * @param watermark Database time taken before the students were read
+     * @param file Snapshot file
+     * @return Number of rows written
+     * @throws IOException if the file cannot be written
+     */
+    public static int write(Iterator<Student> students, Timestamp watermark, Path file) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        
+        Map<String, Integer> dictionary = new HashMap<>();
+        StringData strings = new StringData();
+        int rows = 0;
+        int maxId = 0;
+        
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            channel.position(HEADER_SIZE); // Header goes in last, when the sizes are known
+            
+            while (students.hasNext()) {
+                Student student = students.next();
+                if (out.remaining() < ROW_SIZE) drain(out, channel);
+                out.putInt(student.getId());
+                out.putInt(student.getAge());
+                out.putInt(intern(student.getName(), dictionary, strings));
+                out.putInt(intern(student.getEmail(), dictionary, strings));
+                out.putInt(intern(student.getCourse(), dictionary, strings));
+                out.putInt(gradeCode(student, dictionary, strings));
+                maxId = Math.max(maxId, student.getId());
+                rows++;
+            }
+            
+            long offsetsPosition = HEADER_SIZE + (long) rows * ROW_SIZE;
+            for (int i = 0; i <= strings.count; i++) {
+                if (out.remaining() < 4) drain(out, channel);
+                out.putInt(strings.offsets[i]);
+            }
+            long dataPosition = offsetsPosition + (strings.count + 1L) * 4;
+            for (int at = 0; at < strings.length; ) {
+                if (!out.hasRemaining()) drain(out, channel);
+                int n = Math.min(out.remaining(), strings.length - at);
+                out.put(strings.data, at, n);
+                at += n;
+            }
+            drain(out, channel);
+            long fileLength = dataPosition + strings.length;
+            if (fileLength > Integer.MAX_VALUE) throw new IOException("Roster too large for a snapshot");
+            
+            out.put(MAGIC).putInt(VERSION).putInt(rows).putInt(maxId).putInt(strings.count)
+               .putLong(watermark.getTime()).putLong(offsetsPosition).putLong(dataPosition).putLong(fileLength);
+            while (out.position() < HEADER_SIZE) out.put((byte) 0);
+            out.flip();
+            long position = 0;
+            while (out.hasRemaining()) position += channel.write(out, position);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        
+        try {
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return rows;
+    }
+    
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+    
+    /**
+     * Grade column value: the ordinal, -1 for no grade, or -2 - string index
+     * for legacy grade text that is not a standard grade.
+     */
+    private static int gradeCode(Student student, Map<String, Integer> dictionary, StringData strings) {
+        if (student.getGrade() != null) return student.getGrade().ordinal();
+        String legacy = student.getGradeLabel();
+        return legacy == null ? -1 : -2 - intern(legacy, dictionary, strings);
+    }
+    
+    private static int intern(String value, Map<String, Integer> dictionary, StringData strings) {
+        if (value == null) return -1;
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = strings.add(value);
+            dictionary.put(value, index);
+        }
+        return index;
+    }
+    
+    /**
+     * Growable UTF-8 string table built while writing.
+     */
+    private static final class StringData {
+        int[] offsets = new int[1024];  // offsets[i] = start of string i; offsets[count] = end
+        byte[] data = new byte[64 * 1024];
+        int count;
+        int length;
+        
+        int add(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (length + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + bytes.length));
+            }
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+            if (count + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[count + 1] = length;
+            return count++;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package db;
+
+import java.sql.*;
+
+/**
+ * DDL for the students schema, shared by the SetupDatabase tool (MySQL)
+ * and the embedded backend (created on startup). The statements use
+ * MySQL syntax, which H2 accepts in its MySQL compatibility mode.
+ */
+public class Schema {
+    private static final String CREATE_STUDENTS = """
+        CREATE TABLE IF NOT EXISTS students (
+            id INT PRIMARY KEY AUTO_INCREMENT,
+            name VARCHAR(100) NOT NULL,
+            age INT NOT NULL,
+            email VARCHAR(100) UNIQUE NOT NULL,
+            course VARCHAR(100) NOT NULL,
+            grade VARCHAR(2),
+            registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+            updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+            INDEX idx_students_name (name),
+            INDEX idx_students_course (course),
+            INDEX idx_students_updated_at (updated_at)
+        )
+        """;
+    
+    // Tables created by older versions lack the change tracking column
+    private static final String ADD_CHANGE_TRACKING = """
+        ALTER TABLE students
+            ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+            ADD INDEX idx_students_updated_at (updated_at)
+        """;
+    
+    // Tombstones for deleted students (read by the delta refresh)
+    private static final String CREATE_DELETED = """
+        CREATE TABLE IF NOT EXISTS students_deleted (
+            id INT PRIMARY KEY,
+            deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+            INDEX idx_students_deleted_at (deleted_at)
+        )
+        """;
+    
+    private static final String INSERT_SAMPLE_DATA = """
+        INSERT IGNORE INTO students (name, age, email, course, grade) VALUES
+        ('John Doe', 20, 'john.doe@university.edu', 'Computer Science', 'A'),
+        ('Jane Smith', 21, 'jane.smith@university.edu', 'Mathematics', 'B+'),
+        ('Robert Johnson', 22, 'robert.johnson@university.edu', 'Physics', 'A-'),
+        ('Emily Williams', 19, 'emily.williams@university.edu', 'Chemistry', 'B'),
+        ('Michael Brown', 20, 'michael.brown@university.edu', 'Engineering', 'C+')
+        """;
+    
+    /**
+     * Creates the students and students_deleted tables if they don't exist,
+     * and adds the change tracking column to an old students table.
+     * @param conn Connection to the target database
+     * @return true if an existing students table was upgraded
+     * @throws SQLException if a table cannot be created
+     */
+    public static boolean create(Connection conn) throws SQLException {
+        boolean upgraded = false;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(CREATE_STUDENTS);
+            if (!hasColumn(conn, "students", "updated_at")) {
+                stmt.executeUpdate(ADD_CHANGE_TRACKING);
+                upgraded = true;
+            }
+            stmt.executeUpdate(CREATE_DELETED);
+        }
+        return upgraded;
+    }
+    
+    /**
+     * Inserts the five sample students (skipped where the email already exists).
+     * @param conn Connection to the target database
+     * @return Number of students inserted
+     * @throws SQLException if the insert fails
+     */
+    public static int insertSampleData(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            return stmt.executeUpdate(INSERT_SAMPLE_DATA);
+        }
+    }
+    
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        // Both engines store these lower-case names as written (H2 through DATABASE_TO_LOWER)
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package db;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log of statements that took longer than a threshold, with their query plans.
+ * <p>
+ * Pooled connections wrap every statement in a {@link MonitoredStatement},
+ * which times each execution and reports the slow ones here with their SQL,
+ * bound parameters, row count and elapsed time. A background thread appends
+ * the entry to a rotating log file and runs EXPLAIN for it on another pooled
+ * connection, so the plan that made it slow (e.g. a full scan for
+ * name LIKE '%x%') is in the log next to it. The calling thread never waits
+ * for the file or the EXPLAIN.
+ * </p>
+ * <p>
+ * Configured with system properties:
+ * db.slowQuery.thresholdMillis (default 500, 0 or less = off),
+ * db.slowQuery.file (default ~/.student-management/slow-queries.log),
+ * db.slowQuery.maxFileKB (default 1024, size at which the log rotates),
+ * db.slowQuery.files (default 5 rotated files kept),
+ * db.slowQuery.explainIntervalSeconds (default 300, minimum time between
+ * EXPLAINs of the same SQL text).
+ * </p>
+ */
+public final class SlowQueryLog {
+    private static final long THRESHOLD_MILLIS = Long.getLong("db.slowQuery.thresholdMillis", 500L);
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(THRESHOLD_MILLIS);
+    private static final Path FILE = Paths.get(System.getProperty("db.slowQuery.file",
+        Paths.get(System.getProperty("user.home"), ".student-management", "slow-queries.log").toString()));
+    private static final long MAX_FILE_BYTES = Long.getLong("db.slowQuery.maxFileKB", 1024L) * 1024L;
+    private static final int KEPT_FILES = Math.max(1, Integer.getInteger("db.slowQuery.files", 5));
+    private static final long EXPLAIN_INTERVAL_NANOS =
+        TimeUnit.SECONDS.toNanos(Long.getLong("db.slowQuery.explainIntervalSeconds", 300L));
+
+    private static final int MAX_LOGGED_PARAMETERS = 20; // Multi-row inserts bind hundreds
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;  // ...and their SQL runs to kilobytes
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    // Latency and rows of the slow statements, next to the dao.* metrics
+    private static final OperationMetrics SLOW = Metrics.operation("db.slowQuery");
+
+    private static final AtomicLong nextId = new AtomicLong(1);
+    private static final Map<String, Long> lastExplainNanos = new ConcurrentHashMap<>(); // SQL -> when explained
+
+    // One daemon thread for file writes and EXPLAINs; when it falls behind, new entries are dropped
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(256), r -> {
+            Thread t = new Thread(r, "db-slow-query-log");
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Checks whether statements are being timed.
+     * @return true when db.slowQuery.thresholdMillis is above 0
+     */
+    public static boolean isEnabled() {
+        return THRESHOLD_NANOS > 0;
+    }
+
+    public static long getThresholdMillis() {
+        return THRESHOLD_MILLIS;
+    }
+
+    /**
+     * Gets the current log file (older entries are in FILE.1, FILE.2, ...).
+     * @return Path of the log file
+     */
+    public static Path getFile() {
+        return FILE;
+    }
+
+    static boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= THRESHOLD_NANOS;
+    }
+
+    /**
+     * Logs a slow statement and queues an EXPLAIN of it. Called on the thread
+     * that ran the statement; everything slow happens in the background.
+     * @param pool Pool to borrow the EXPLAIN connection from
+     * @param sql SQL text
+     * @param parameters Bound parameters by index (index 0 unused), or null
+     * @param rows Rows returned or affected, or -1 if unknown
+     * @param elapsedNanos Time the statement took
+     * @param error Exception the statement threw, or null
+     */
+    static void record(ConnectionPool pool, String sql, Object[] parameters, long rows,
+                       long elapsedNanos, Throwable error) {
+        if (error == null) {
+            SLOW.recordSuccess(System.nanoTime() - elapsedNanos, Math.max(0, rows));
+        } else {
+            SLOW.recordFailure();
+        }
+
+        long id = nextId.getAndIncrement();
+        StringBuilder entry = new StringBuilder(256);
+        entry.append(Instant.now()).append(" #").append(id)
+             .append(String.format(Locale.ROOT, " %.1f ms", elapsedNanos / 1e6))
+             .append(" rows=").append(rows < 0 ? "?" : Long.toString(rows))
+             .append(" sql=");
+        String oneLine = sql.trim().replaceAll("\\s+", " "); // One entry per line
+        if (oneLine.length() > MAX_LOGGED_SQL_LENGTH) {
+            entry.append(oneLine, 0, MAX_LOGGED_SQL_LENGTH).append("... (").append(oneLine.length()).append(" chars)");
+        } else {
+            entry.append(oneLine);
+        }
+        if (parameters != null && parameters.length > 1) {
+            entry.append(" params=");
+            appendParameters(entry, parameters);
+        }
+        if (error != null) {
+            entry.append(" error=").append(error.getMessage());
+        }
+        entry.append('\n');
+        String line = entry.toString();
+
+        writer.execute(() -> {
+            System.out.println("🐢 Slow query #" + id + " (" + (elapsedNanos / 1_000_000) + " ms) logged to " + FILE);
+            append(line);
+            if (shouldExplain(sql)) {
+                append(explain(pool, id, sql, parameters));
+            }
+        });
+    }
+
+    // ---------- Internal helpers (run on the writer thread) ----------
+
+    private static boolean shouldExplain(String sql) {
+        String verb = sql.trim().toUpperCase(Locale.ROOT);
+        if (!(verb.startsWith("SELECT") || verb.startsWith("UPDATE") || verb.startsWith("DELETE"))) {
+            return false; // Inserts have no access path worth explaining
+        }
+        long now = System.nanoTime();
+        Long last = lastExplainNanos.get(sql);
+        if (last != null && now - last < EXPLAIN_INTERVAL_NANOS) return false; // Plan logged recently
+        lastExplainNanos.put(sql, now);
+        return true;
+    }
+
+    /**
+     * Runs EXPLAIN with the same parameters and formats each plan row as
+     * label=value pairs (MySQL returns one row per table, H2 a single PLAN column).
+     * The statement is prepared with an overload the statement cache passes
+     * straight to the driver, so one-off EXPLAINs never evict hot statements.
+     */
+    private static String explain(ConnectionPool pool, long id, String sql, Object[] parameters) {
+        StringBuilder out = new StringBuilder();
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    pstmt.setObject(i, parameters[i]);
+                }
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    out.append(Instant.now()).append(" #").append(id).append(" EXPLAIN");
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        String value = rs.getString(c);
+                        if (value == null) continue;
+                        out.append(' ').append(meta.getColumnLabel(c).toLowerCase(Locale.ROOT))
+                           .append('=').append(value.replaceAll("\\s+", " "));
+                    }
+                    out.append('\n');
+                }
+            }
+        } catch (SQLException e) {
+            out.append(Instant.now()).append(" #").append(id).append(" EXPLAIN failed: ")
+               .append(e.getMessage()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void appendParameters(StringBuilder out, Object[] parameters) {
+        out.append('[');
+        int shown = Math.min(parameters.length - 1, MAX_LOGGED_PARAMETERS);
+        for (int i = 1; i <= shown; i++) {
+            if (i > 1) out.append(", ");
+            Object value = parameters[i];
+            if (value instanceof String) {
+                String text = (String) value;
+                if (text.length() > MAX_PARAMETER_LENGTH) text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+                out.append('\'').append(text.replace("'", "''")).append('\'');
+            } else {
+                out.append(value);
+            }
+        }
+        if (parameters.length - 1 > shown) {
+            out.append(", ... (").append(parameters.length - 1).append(" in total)");
+        }
+        out.append(']');
+    }
+
+    private static void append(String text) {
+        if (text.isEmpty()) return;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8); // Names and SQL may be non-ASCII
+        try {
+            Path parent = FILE.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            if (Files.exists(FILE) && Files.size(FILE) + bytes.length > MAX_FILE_BYTES) {
+                rotate();
+            }
+            Files.write(FILE, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("❌ Could not write slow query log " + FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shifts FILE.(n-1) to FILE.n, ..., FILE to FILE.1; the oldest file is dropped.
+     */
+    private static void rotate() throws IOException {
+        Files.deleteIfExists(rotated(KEPT_FILES));
+        for (int i = KEPT_FILES - 1; i >= 1; i--) {
+            Path older = rotated(i);
+            if (Files.exists(older)) {
+                Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(FILE, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path rotated(int generation) {
+        return FILE.resolveSibling(FILE.getFileName() + "." + generation);
+    }
+}
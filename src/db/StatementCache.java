@@ -0,0 +1,211 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one pooled connection, keyed by SQL text.
+ * <p>
+ * Statements handed out are proxies: close() clears the parameters and puts the
+ * statement back in the cache instead of closing it, so the next prepare of the
+ * same SQL on this connection skips parsing. Evicted statements are really closed.
+ * Statements still checked out when the connection goes back to the pool are
+ * reclaimed by {@link #reclaim()}.
+ * </p>
+ */
+class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final LongAdder hits;    // Shared pool-wide counters
+    private final LongAdder misses;
+    private final LinkedHashMap<Key, PreparedStatement> cache;
+    private final Set<CachedStatement> checkedOut = new HashSet<>(); // Handed out, not closed yet
+
+    StatementCache(Connection physical, int capacity, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        // Access order = least recently used entry is evicted first
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for the SQL, reusing a cached one when possible.
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return Statement proxy that returns itself to the cache on close()
+     * @throws SQLException if preparing the statement fails
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement statement = cache.remove(key); // Check out so nested use gets its own copy
+        if (statement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : physical.prepareStatement(sql);
+        }
+        CachedStatement handler = new CachedStatement(key, statement);
+        checkedOut.add(handler);
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            handler);
+    }
+
+    /**
+     * Checks in every statement the borrower did not close (called when the
+     * connection is returned to the pool). Their proxies refuse further use,
+     * so a leaked reference cannot touch the statement once it is reused.
+     */
+    void reclaim() {
+        if (checkedOut.isEmpty()) return;
+        for (CachedStatement handler : new ArrayList<>(checkedOut)) {
+            handler.giveBack();
+        }
+    }
+
+    /**
+     * Closes every cached statement (used when the connection is discarded).
+     */
+    void clear() {
+        for (CachedStatement handler : checkedOut) {
+            handler.returned = true;
+            closeQuietly(handler.statement);
+        }
+        checkedOut.clear();
+        for (PreparedStatement statement : cache.values()) {
+            closeQuietly(statement);
+        }
+        cache.clear();
+    }
+
+    private void checkIn(Key key, PreparedStatement statement) {
+        try {
+            ResultSet open = statement.getResultSet();
+            if (open != null) open.close(); // Borrower left it open - it would hold a cursor on the connection
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            // Back to the driver defaults, so one borrower's limits don't carry over to the next
+            statement.setMaxRows(0);   // Before the fetch size: H2 rejects a fetch size above maxRows
+            statement.setFetchSize(0);
+            statement.setQueryTimeout(0);
+        } catch (SQLException e) {
+            closeQuietly(statement); // Broken statement - do not keep it
+            return;
+        }
+        PreparedStatement displaced = cache.put(key, statement);
+        if (displaced != null && displaced != statement) {
+            closeQuietly(displaced); // Two copies were checked out at once; keep one
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Statement is being discarded anyway
+        }
+    }
+
+    /**
+     * Cache key: the same SQL prepared with and without generated keys
+     * produces different statements.
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Invocation handler for one checkout of a cached statement.
+     */
+    private class CachedStatement implements InvocationHandler {
+        private final Key key;
+        private final PreparedStatement statement;
+        private boolean returned;
+
+        CachedStatement(Key key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return returned || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key.sql + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void giveBack() {
+            if (returned) return;
+            returned = true;
+            checkedOut.remove(this);
+            checkIn(key, statement);
+        }
+    }
+}
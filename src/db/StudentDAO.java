@@ -2,29 +2,102 @@ package db;
 
 import model.Student;
 import java.sql.*;
+import java.util.Collections;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object (DAO) for Student entities.
  * Implements CRUD operations for the students table.
+ * <p>
+ * SQL strings are constants so every call prepares the exact same text,
+ * which lets the pooled connection's statement cache reuse the statement.
+ * </p>
+ * <p>
+ * Changes are tracked for delta refreshes: MySQL maintains students.updated_at
+ * on every insert/update, and deletes leave a tombstone row in students_deleted.
+ * </p>
  */
 public class StudentDAO implements GenericDAO<Student> {
     
+    // SQL statements (reused through the per-connection statement cache)
+    private static final String INSERT_SQL =
+        "INSERT INTO students (name, age, email, course, grade) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM students WHERE id = ?";
+    private static final String UPDATE_SQL =
+        "UPDATE students SET name=?, age=?, email=?, course=?, grade=? WHERE id=?";
+    private static final String DELETE_SQL = "DELETE FROM students WHERE id = ?";
+    private static final String TOMBSTONE_SQL =
+        "INSERT INTO students_deleted (id) VALUES (?) ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)";
+    private static final String SELECT_ALL_SQL = "SELECT * FROM students ORDER BY id";
+    private static final String SEARCH_BY_NAME_SQL = "SELECT * FROM students WHERE name LIKE ? ORDER BY name";
+    private static final String SELECT_COURSES_SQL = "SELECT DISTINCT course FROM students ORDER BY course";
+    
+    // Keyset (seek) pagination: continue after the last row of the previous page
+    private static final String PAGE_BY_ID_SQL = "SELECT * FROM students WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM students";
+    private static final String TABLE_STATE_SQL =
+        "SELECT COUNT(*), COALESCE(MAX(id), 0), CURRENT_TIMESTAMP(3) FROM students";
+    private static final String SERVER_TIME_SQL = "SELECT CURRENT_TIMESTAMP(3)";
+    private static final String CHANGED_SINCE_SQL = "SELECT * FROM students WHERE updated_at >= ? ORDER BY id";
+    private static final String DELETED_SINCE_SQL = "SELECT id, deleted_at FROM students_deleted WHERE deleted_at >= ?";
+    private static final String PURGE_TOMBSTONES_SQL = "DELETE FROM students_deleted WHERE deleted_at < ?";
+    
+    // Delta queries look this far behind the watermark so a row whose transaction
+    // committed just after the previous poll (with an earlier updated_at) is not missed.
+    // Rows inside the overlap are returned twice; applying a change is idempotent.
+    private static final long WATERMARK_OVERLAP_MILLIS = 2000;
+    private static final String ID_AT_OFFSET_SQL = "SELECT id FROM students ORDER BY id LIMIT 1 OFFSET ?";
+    private static final String FIRST_PAGE_BY_NAME_SQL = "SELECT * FROM students ORDER BY name, id LIMIT ?";
+    private static final String PAGE_BY_NAME_SQL =
+        "SELECT * FROM students WHERE name > ? OR (name = ? AND id > ?) ORDER BY name, id LIMIT ?";
+    private static final String FIRST_PAGE_BY_COURSE_SQL = "SELECT * FROM students ORDER BY course, id LIMIT ?";
+    private static final String PAGE_BY_COURSE_SQL =
+        "SELECT * FROM students WHERE course > ? OR (course = ? AND id > ?) ORDER BY course, id LIMIT ?";
+    
+    // Fetch size for streaming: MySQL Connector/J streams rows one at a time (instead
+    // of buffering the whole result) only for forward-only, read-only statements
+    // with Integer.MIN_VALUE, which other drivers reject
+    private static final int STREAM_FETCH_SIZE = DatabaseConnection.getBackend().getStreamFetchSize();
+    
+    private int batchSize = 500; // Rows per JDBC batch (and per transaction) in the *All methods
+    
+    /**
+     * Gets the number of rows sent per batch by createAll/updateAll/deleteAll.
+     * @return Batch (chunk) size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Sets the number of rows sent per batch. Each chunk is committed
+     * in its own transaction.
+     * @param batchSize Batch (chunk) size, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+    
     @Override
     public void create(Student student) throws Exception {
-        // SQL insert with column names matching the database
-        String sql = "INSERT INTO students (name, age, email, course, grade) VALUES (?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
             // Set parameters for the prepared statement
             pstmt.setString(1, student.getName());      // name
             pstmt.setInt(2, student.getAge());          // age
             pstmt.setString(3, student.getEmail());     // email
             pstmt.setString(4, student.getCourse());    // course
-            pstmt.setString(5, student.getGrade());     // grade
+            pstmt.setString(5, student.getGradeLabel());     // grade
             
             pstmt.executeUpdate(); // Execute the insert
             
@@ -39,24 +112,16 @@ public class StudentDAO implements GenericDAO<Student> {
     
     @Override
     public Student read(int id) throws Exception {
-        String sql = "SELECT * FROM students WHERE id = ?";
         Student student = null; // Initialize as null (not found)
         
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
             
             pstmt.setInt(1, id); // Set the ID parameter
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) { // If a record is found
-                    student = new Student(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("age"),
-                        rs.getString("email"),
-                        rs.getString("course"),
-                        rs.getString("grade")
-                    );
+                    student = mapRow(rs);
                 }
             }
         }
@@ -65,18 +130,15 @@ public class StudentDAO implements GenericDAO<Student> {
     
     @Override
     public void update(Student student) throws Exception {
-        // SQL update with all student fields
-        String sql = "UPDATE students SET name=?, age=?, email=?, course=?, grade=? WHERE id=?";
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
             
             // Set all field values
             pstmt.setString(1, student.getName());
             pstmt.setInt(2, student.getAge());
             pstmt.setString(3, student.getEmail());
             pstmt.setString(4, student.getCourse());
-            pstmt.setString(5, student.getGrade());
+            pstmt.setString(5, student.getGradeLabel());
             pstmt.setInt(6, student.getId()); // WHERE clause uses ID
             
             pstmt.executeUpdate(); // Execute the update
@@ -85,40 +147,441 @@ public class StudentDAO implements GenericDAO<Student> {
     
     @Override
     public void delete(int id) throws Exception {
-        String sql = "DELETE FROM students WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // Delete and tombstone together or not at all
             
-            pstmt.setInt(1, id); // Set the ID to delete
-            pstmt.executeUpdate(); // Execute delete
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL);
+                 PreparedStatement tombstone = conn.prepareStatement(TOMBSTONE_SQL)) {
+                
+                pstmt.setInt(1, id); // Set the ID to delete
+                if (pstmt.executeUpdate() > 0) { // Execute delete
+                    tombstone.setInt(1, id); // Record it for other desks' delta refresh
+                    tombstone.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
     
     @Override
     public List<Student> findAll() throws Exception {
         List<Student> students = new ArrayList<>(); // List to hold results
-        String sql = "SELECT * FROM students ORDER BY id"; // Order by ID
         
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_ALL_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) { // For each row in result set
-                Student student = new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getInt("age"),
-                    rs.getString("email"),
-                    rs.getString("course"),
-                    rs.getString("grade")
-                );
-                students.add(student); // Add to list
+                students.add(mapRow(rs)); // Add to list
             }
         }
         return students; // Return all students
     }
     
+    @Override
+    public List<Student> findPage(int afterId, int limit) throws Exception {
+        List<Student> students = new ArrayList<>(limit);
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(PAGE_BY_ID_SQL)) {
+            
+            pstmt.setInt(1, afterId); // Seek past the previous page using the primary key
+            pstmt.setInt(2, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(mapRow(rs));
+                }
+            }
+        }
+        return students;
+    }
+    
+    /**
+     * Count all students.
+     * @return Number of rows in the students table
+     */
+    public int count() throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNT_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Read the row count, highest ID and database time in one query.
+     * The server time is the watermark for the first {@link #findChangedSince} call.
+     * @return Current table state
+     */
+    public TableState getTableState() throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TABLE_STATE_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            rs.next(); // Aggregate query always returns one row
+            return new TableState(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3));
+        }
+    }
+    
+    /**
+     * Find rows inserted, updated or deleted since a watermark.
+     * Uses the updated_at index and the tombstone table, so the cost depends
+     * on the number of changes, not the table size (the row count is only
+     * re-read when something was deleted).
+     * @param watermark Watermark from the previous ChangeSet or TableState
+     * @return Changes plus the watermark to use next time
+     */
+    public ChangeSet findChangedSince(Timestamp watermark) throws Exception {
+        Timestamp since = new Timestamp(watermark.getTime() - WATERMARK_OVERLAP_MILLIS);
+        List<Student> changed = new ArrayList<>();
+        List<Integer> deletedIds = new ArrayList<>();
+        Timestamp next;
+        Timestamp oldestChange = null; // Oldest change not reported by the previous call
+        int rowCount = -1;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Read the clock first: anything changed after this shows up next time
+            try (PreparedStatement pstmt = conn.prepareStatement(SERVER_TIME_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                next = rs.getTimestamp(1);
+            }
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(CHANGED_SINCE_SQL)) {
+                pstmt.setTimestamp(1, since);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(mapRow(rs));
+                        oldestChange = oldestNewChange(oldestChange, rs.getTimestamp("updated_at"), watermark);
+                    }
+                }
+            }
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETED_SINCE_SQL)) {
+                pstmt.setTimestamp(1, since);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletedIds.add(rs.getInt(1));
+                        oldestChange = oldestNewChange(oldestChange, rs.getTimestamp(2), watermark);
+                    }
+                }
+            }
+            
+            if (!deletedIds.isEmpty()) {
+                // Deleted rows may not be on anyone's screen; the count lets clients resync
+                try (PreparedStatement pstmt = conn.prepareStatement(COUNT_SQL);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    rowCount = rs.getInt(1);
+                }
+            }
+        }
+        return new ChangeSet(Collections.unmodifiableList(changed), Collections.unmodifiableList(deletedIds),
+            next, oldestChange, rowCount);
+    }
+    
+    /**
+     * Delete tombstones older than a maximum age. No sync starts from that far
+     * back (older snapshots are ignored), so they are no longer needed.
+     * @param maxAgeMillis Age, by the database clock, beyond which tombstones go
+     * @return Number of tombstones deleted
+     */
+    public int purgeTombstones(long maxAgeMillis) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Timestamp now;
+            try (PreparedStatement pstmt = conn.prepareStatement(SERVER_TIME_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                now = rs.getTimestamp(1);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(PURGE_TOMBSTONES_SQL)) {
+                pstmt.setTimestamp(1, new Timestamp(now.getTime() - maxAgeMillis));
+                return pstmt.executeUpdate();
+            }
+        }
+    }
+    
+    /**
+     * Keeps the oldest change time at or after the watermark (changes inside
+     * the overlap window were already reported last time).
+     */
+    private static Timestamp oldestNewChange(Timestamp oldest, Timestamp changedAt, Timestamp watermark) {
+        if (changedAt == null || changedAt.before(watermark)) return oldest;
+        return oldest == null || changedAt.before(oldest) ? changedAt : oldest;
+    }
+    
+    /**
+     * Find the ID of the student at a position in ID order.
+     * Only walks the primary key index, so it is a cheap way to find the
+     * keyset starting point for a page far down the table.
+     * @param offset Zero-based row position
+     * @return The ID at that position, or -1 if the table is shorter
+     */
+    public int findIdAtOffset(int offset) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ID_AT_OFFSET_SQL)) {
+            
+            pstmt.setInt(1, offset);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+    
+    /**
+     * Find the next page of students ordered by name (ties broken by ID).
+     * @param afterName Name of the last student on the previous page (null for the first page)
+     * @param afterId ID of the last student on the previous page
+     * @param limit Maximum number of students to return
+     * @return Up to limit students ordered by name, then ID
+     */
+    public List<Student> findPageByName(String afterName, int afterId, int limit) throws Exception {
+        return findSortedPage(FIRST_PAGE_BY_NAME_SQL, PAGE_BY_NAME_SQL, afterName, afterId, limit);
+    }
+    
+    /**
+     * Find the next page of students ordered by course (ties broken by ID).
+     * @param afterCourse Course of the last student on the previous page (null for the first page)
+     * @param afterId ID of the last student on the previous page
+     * @param limit Maximum number of students to return
+     * @return Up to limit students ordered by course, then ID
+     */
+    public List<Student> findPageByCourse(String afterCourse, int afterId, int limit) throws Exception {
+        return findSortedPage(FIRST_PAGE_BY_COURSE_SQL, PAGE_BY_COURSE_SQL, afterCourse, afterId, limit);
+    }
+    
+    /**
+     * Stream every student in ID order without loading them into a list.
+     * Rows are read lazily from a forward-only, read-only result set, so heap use
+     * stays flat regardless of table size. The stream holds a pooled connection
+     * until it is closed, so always use it in try-with-resources.
+     * <p>
+     * Database errors while reading rows are thrown as {@link DataAccessException}.
+     * </p>
+     * @return Lazily populated stream of students; close it to release the connection
+     * @throws Exception If the query cannot be started
+     */
+    public Stream<Student> stream() throws Exception {
+        Connection conn = DatabaseConnection.getConnection();
+        Statement stmt = null;
+        ResultSet rs;
+        try {
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            rs = stmt.executeQuery(SELECT_ALL_SQL);
+        } catch (SQLException e) {
+            if (stmt != null) stmt.close();
+            conn.close();
+            throw e;
+        }
+        
+        final Statement openStmt = stmt;
+        final ResultSet openRs = rs;
+        Spliterator<Student> rows = new Spliterators.AbstractSpliterator<Student>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Student> action) {
+                try {
+                    if (!openRs.next()) return false; // End of table
+                    action.accept(mapRow(openRs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DataAccessException("Error reading students: " + e.getMessage(), e);
+                }
+            }
+        };
+        
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            // Release in reverse order; the connection goes back to the pool even if a close fails
+            try {
+                try {
+                    try {
+                        openRs.close();
+                    } finally {
+                        openStmt.close();
+                    }
+                } finally {
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                throw new DataAccessException("Error closing student stream: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    // ---------- Batch Operations ----------
+    
+    @Override
+    public void createAll(List<Student> students) throws Exception {
+        if (students.isEmpty()) return;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // One transaction per chunk
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < students.size(); start += batchSize) {
+                    List<Student> chunk = students.subList(start, Math.min(start + batchSize, students.size()));
+                    
+                    for (Student student : chunk) {
+                        pstmt.setString(1, student.getName());
+                        pstmt.setInt(2, student.getAge());
+                        pstmt.setString(3, student.getEmail());
+                        pstmt.setString(4, student.getCourse());
+                        pstmt.setString(5, student.getGradeLabel());
+                        pstmt.addBatch();
+                    }
+                    
+                    try {
+                        pstmt.executeBatch();
+                        // Keys come back in insertion order
+                        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                            int i = 0;
+                            while (rs.next() && i < chunk.size()) {
+                                chunk.get(i++).setId(rs.getInt(1));
+                            }
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback(); // Undo only the failing chunk
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Inserts students with multi-row INSERT statements (rowsPerStatement rows
+     * in each, one transaction per statement). Faster than createAll() for
+     * bulk loads because it sends fewer, larger statements and skips reading
+     * back generated keys, so the students' IDs are not set.
+     * @param students Students to insert
+     * @param rowsPerStatement Rows per INSERT statement, at least 1
+     * @return Number of rows inserted
+     */
+    public int bulkInsert(List<Student> students, int rowsPerStatement) throws Exception {
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("Rows per statement must be at least 1");
+        }
+        if (students.isEmpty()) return 0;
+        
+        int inserted = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int start = 0; start < students.size(); start += rowsPerStatement) {
+                List<Student> chunk = students.subList(start, Math.min(start + rowsPerStatement, students.size()));
+                // Full chunks share one SQL text, so the statement cache reuses it
+                try (PreparedStatement pstmt = conn.prepareStatement(multiRowInsertSql(chunk.size()))) {
+                    int p = 1;
+                    for (Student student : chunk) {
+                        pstmt.setString(p++, student.getName());
+                        pstmt.setInt(p++, student.getAge());
+                        pstmt.setString(p++, student.getEmail());
+                        pstmt.setString(p++, student.getCourse());
+                        pstmt.setString(p++, student.getGradeLabel());
+                    }
+                    inserted += pstmt.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback(); // Undo only the failing statement
+                    throw e;
+                }
+            }
+        }
+        return inserted;
+    }
+    
+    private static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + rows * 18);
+        sql.append(INSERT_SQL); // Ends with the first "(?, ?, ?, ?, ?)"
+        for (int i = 1; i < rows; i++) {
+            sql.append(", (?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+    
+    @Override
+    public void updateAll(List<Student> students) throws Exception {
+        if (students.isEmpty()) return;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (int start = 0; start < students.size(); start += batchSize) {
+                    int end = Math.min(start + batchSize, students.size());
+                    
+                    for (Student student : students.subList(start, end)) {
+                        pstmt.setString(1, student.getName());
+                        pstmt.setInt(2, student.getAge());
+                        pstmt.setString(3, student.getEmail());
+                        pstmt.setString(4, student.getCourse());
+                        pstmt.setString(5, student.getGradeLabel());
+                        pstmt.setInt(6, student.getId());
+                        pstmt.addBatch();
+                    }
+                    
+                    try {
+                        pstmt.executeBatch();
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void deleteAll(List<Integer> ids) throws Exception {
+        if (ids.isEmpty()) return;
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL);
+                 PreparedStatement tombstone = conn.prepareStatement(TOMBSTONE_SQL)) {
+                for (int start = 0; start < ids.size(); start += batchSize) {
+                    int end = Math.min(start + batchSize, ids.size());
+                    
+                    List<Integer> chunk = ids.subList(start, end);
+                    for (int id : chunk) {
+                        pstmt.setInt(1, id);
+                        pstmt.addBatch();
+                    }
+                    
+                    try {
+                        int[] deleted = pstmt.executeBatch();
+                        boolean anyDeleted = false;
+                        for (int i = 0; i < chunk.size(); i++) {
+                            // Only IDs that were there, like delete(); SUCCESS_NO_INFO may have been
+                            int count = i < deleted.length ? deleted[i] : Statement.SUCCESS_NO_INFO;
+                            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                                tombstone.setInt(1, chunk.get(i));
+                                tombstone.addBatch();
+                                anyDeleted = true;
+                            }
+                        }
+                        if (anyDeleted) {
+                            tombstone.executeBatch(); // Same transaction as the deletes
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+    
     // ---------- Additional Helper Methods ----------
     
     /**
@@ -127,27 +590,32 @@ public class StudentDAO implements GenericDAO<Student> {
      * @return List of matching students
      */
     public List<Student> searchByName(String name) throws Exception {
+        return searchByName(name, null);
+    }
+    
+    /**
+     * Search for students by name (partial match), allowing the query to be
+     * cancelled from another thread while it runs.
+     * @param name Search term (can be partial)
+     * @param handle Cancellation handle, or null if the search cannot be cancelled
+     * @return List of matching students
+     * @throws SQLException if the query fails or was cancelled
+     */
+    public List<Student> searchByName(String name, QueryHandle handle) throws Exception {
         List<Student> students = new ArrayList<>();
-        // LIKE with % for partial matching
-        String sql = "SELECT * FROM students WHERE name LIKE ? ORDER BY name";
         
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SEARCH_BY_NAME_SQL)) {
             
             pstmt.setString(1, "%" + name + "%"); // Add wildcards
             
+            if (handle != null) handle.attach(pstmt);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Student student = new Student(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("age"),
-                        rs.getString("email"),
-                        rs.getString("course"),
-                        rs.getString("grade")
-                    );
-                    students.add(student);
+                    students.add(mapRow(rs));
                 }
+            } finally {
+                if (handle != null) handle.detach();
             }
         }
         return students;
@@ -159,11 +627,10 @@ public class StudentDAO implements GenericDAO<Student> {
      */
     public List<String> getAllCourses() throws Exception {
         List<String> courses = new ArrayList<>();
-        String sql = "SELECT DISTINCT course FROM students ORDER BY course";
         
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_COURSES_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
                 courses.add(rs.getString("course")); // Add each course
@@ -171,4 +638,56 @@ public class StudentDAO implements GenericDAO<Student> {
         }
         return courses; // Return unique courses
     }
-}
\ No newline at end of file
+    
+    /**
+     * Runs a keyset page query on a (column, id) sort order.
+     * @param firstSql Query for the first page (only a LIMIT parameter)
+     * @param nextSql Query for later pages (value, value, id, limit parameters)
+     * @param afterValue Sort column value of the last row seen, or null for the first page
+     * @param afterId ID of the last row seen
+     * @param limit Maximum number of rows
+     * @return Page of students
+     */
+    private List<Student> findSortedPage(String firstSql, String nextSql, String afterValue,
+                                         int afterId, int limit) throws Exception {
+        List<Student> students = new ArrayList<>(limit);
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(afterValue == null ? firstSql : nextSql)) {
+            
+            if (afterValue == null) {
+                pstmt.setInt(1, limit);
+            } else {
+                pstmt.setString(1, afterValue);
+                pstmt.setString(2, afterValue);
+                pstmt.setInt(3, afterId);
+                pstmt.setInt(4, limit);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(mapRow(rs));
+                }
+            }
+        }
+        return students;
+    }
+    
+    /**
+     * Builds a Student from the current row of a result set.
+     * @param rs Result set positioned on a students row
+     * @return Student object
+     */
+    private Student mapRow(ResultSet rs) throws SQLException {
+        Student student = new Student(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getInt("age"),
+            rs.getString("email"),
+            rs.getString("course"),
+            null
+        );
+        student.setGradeLabel(rs.getString("grade")); // Parsed once here; unknown legacy text is kept for writes
+        return student;
+    }
+}
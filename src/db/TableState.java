@@ -0,0 +1,23 @@
+package db;
+
+import java.sql.Timestamp;
+
+/**
+ * Size of the students table plus the server time it was read at,
+ * used as the starting watermark for delta refreshes.
+ */
+public class TableState {
+    private final int rowCount;
+    private final int maxId;            // Highest student ID (0 if the table is empty)
+    private final Timestamp serverTime; // Database clock when the state was read
+    
+    public TableState(int rowCount, int maxId, Timestamp serverTime) {
+        this.rowCount = rowCount;
+        this.maxId = maxId;
+        this.serverTime = serverTime;
+    }
+    
+    public int getRowCount() { return rowCount; }
+    public int getMaxId() { return maxId; }
+    public Timestamp getServerTime() { return serverTime; }
+}
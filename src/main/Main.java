@@ -1,5 +1,6 @@
 package main;
 
+import metrics.MetricsDumper;
 import ui.MainFrame;
 import javax.swing.*;
 
@@ -19,6 +20,9 @@ public class Main {
             System.out.println("📊 Database: university_db");
             System.out.println("📋 Table: students");
             
+            // Periodic metrics file, if -Dmetrics.dump.intervalSeconds is set
+            MetricsDumper.startFromSystemProperties();
+            
             // Create and display the main application window
             new MainFrame();
         });
@@ -0,0 +1,93 @@
+package metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Process-wide registry of {@link OperationMetrics}, plus text and JSON
+ * renderings of a snapshot.
+ * <p>
+ * Instrumented classes look their operations up once, into static final
+ * fields, so the hot path never touches the registry.
+ * </p>
+ */
+public final class Metrics {
+    private static final ConcurrentSkipListMap<String, OperationMetrics> OPERATIONS = new ConcurrentSkipListMap<>();
+    private static final long STARTED_MILLIS = System.currentTimeMillis();
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the metrics for an operation, registering it on first use.
+     * @param name Dotted operation name, e.g. "dao.read"
+     * @return Shared metrics for that name
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * Gets a snapshot of every registered operation.
+     * @return Stats sorted by operation name
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>(OPERATIONS.size());
+        for (OperationMetrics operation : OPERATIONS.values()) {
+            stats.add(operation.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Renders a snapshot as an aligned text table (latencies in microseconds).
+     * @param stats Snapshot from {@link #snapshot()}
+     * @return Header line, column titles and one line per operation
+     */
+    public static String toText(List<OperationStats> stats) {
+        StringBuilder out = new StringBuilder();
+        out.append("# Metrics at ").append(Instant.now())
+           .append(" (uptime ").append((System.currentTimeMillis() - STARTED_MILLIS) / 1000).append(" s)\n");
+        out.append(String.format(Locale.ROOT, "%-32s %10s %12s %8s %10s %10s %10s %10s %10s %10s%n",
+            "operation", "count", "rows", "errors", "mean_us", "p50_us", "p90_us", "p99_us", "p999_us", "max_us"));
+        for (OperationStats s : stats) {
+            out.append(String.format(Locale.ROOT, "%-32s %10d %12d %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                s.getName(), s.getCount(), s.getRows(), s.getErrors(), s.getMeanNanos() / 1e3, s.getP50Nanos() / 1e3,
+                s.getP90Nanos() / 1e3, s.getP99Nanos() / 1e3, s.getP999Nanos() / 1e3, s.getMaxNanos() / 1e3));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders a snapshot as one JSON object (latencies in microseconds).
+     * @param stats Snapshot from {@link #snapshot()}
+     * @return JSON text
+     */
+    public static String toJson(List<OperationStats> stats) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"timestamp\":\"").append(Instant.now())
+           .append("\",\"uptimeSeconds\":").append((System.currentTimeMillis() - STARTED_MILLIS) / 1000)
+           .append(",\"operations\":[");
+        for (int i = 0; i < stats.size(); i++) {
+            OperationStats s = stats.get(i);
+            if (i > 0) out.append(',');
+            out.append("\n  {\"name\":\"").append(escape(s.getName())).append('"')
+               .append(",\"count\":").append(s.getCount())
+               .append(",\"rows\":").append(s.getRows())
+               .append(",\"errors\":").append(s.getErrors())
+               .append(String.format(Locale.ROOT,
+                   ",\"meanUs\":%.1f,\"p50Us\":%.1f,\"p90Us\":%.1f,\"p99Us\":%.1f,\"p999Us\":%.1f,\"maxUs\":%.1f}",
+                   s.getMeanNanos() / 1e3, s.getP50Nanos() / 1e3, s.getP90Nanos() / 1e3,
+                   s.getP99Nanos() / 1e3, s.getP999Nanos() / 1e3, s.getMaxNanos() / 1e3));
+        }
+        out.append("\n]}\n");
+        return out.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
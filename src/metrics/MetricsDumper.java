@@ -0,0 +1,119 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a {@link Metrics} snapshot to a local file.
+ * <p>
+ * Each dump replaces the file (written next to it first, then moved into
+ * place), so a reader never sees a half-written snapshot. The format is
+ * JSON when the file name ends in ".json", otherwise a text table.
+ * </p>
+ * <p>
+ * Configured with system properties:
+ * metrics.dump.intervalSeconds (default 0 = off),
+ * metrics.dump.file (default metrics.txt),
+ * metrics.dump.format (text or json, overrides the file extension).
+ * </p>
+ */
+public class MetricsDumper {
+    private static final Path CONFIGURED_FILE = Paths.get(System.getProperty("metrics.dump.file", "metrics.txt"));
+    private static final int CONFIGURED_INTERVAL_SECONDS = Integer.getInteger("metrics.dump.intervalSeconds", 0);
+
+    private final Path file;
+    private final boolean json;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Starts dumping on a daemon thread.
+     * @param file File to (re)write
+     * @param json true for JSON, false for a text table
+     * @param intervalSeconds Seconds between dumps, at least 1
+     */
+    public MetricsDumper(Path file, boolean json, int intervalSeconds) {
+        if (intervalSeconds < 1) throw new IllegalArgumentException("Dump interval must be at least 1 second");
+        this.file = file;
+        this.json = json;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dumper");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::dumpQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the dumper configured by the metrics.dump.* system properties.
+     * A final dump is written when the JVM exits.
+     * @return The running dumper, or null if metrics.dump.intervalSeconds is not set
+     */
+    public static MetricsDumper startFromSystemProperties() {
+        if (CONFIGURED_INTERVAL_SECONDS <= 0) return null;
+        MetricsDumper dumper = new MetricsDumper(CONFIGURED_FILE, isJson(CONFIGURED_FILE), CONFIGURED_INTERVAL_SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(dumper::dumpQuietly, "metrics-final-dump"));
+        System.out.println("📈 Writing metrics every " + CONFIGURED_INTERVAL_SECONDS + " s to " + CONFIGURED_FILE.toAbsolutePath());
+        return dumper;
+    }
+
+    /**
+     * Writes one snapshot to the file named by metrics.dump.file, whether or
+     * not periodic dumps are enabled.
+     * @return The file written
+     */
+    public static Path dumpToConfiguredFile() throws IOException {
+        write(CONFIGURED_FILE, isJson(CONFIGURED_FILE));
+        return CONFIGURED_FILE;
+    }
+
+    /**
+     * Writes one snapshot now.
+     */
+    public void dump() throws IOException {
+        write(file, json);
+    }
+
+    /**
+     * Stops periodic dumps.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // ---------- Internal helpers ----------
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            System.err.println("❌ Metrics dump failed: " + e.getMessage()); // Keep trying on the next run
+        }
+    }
+
+    private static boolean isJson(Path file) {
+        String format = System.getProperty("metrics.dump.format");
+        if (format != null) return format.equalsIgnoreCase("json");
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    private static void write(Path file, boolean json) throws IOException {
+        String text = json ? Metrics.toJson(Metrics.snapshot()) : Metrics.toText(Metrics.snapshot());
+        Path target = file.toAbsolutePath();
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Files.write(part, text.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package metrics;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, row and error counters for one named operation (e.g. "dao.read").
+ * <p>
+ * Callers take a start time with {@link System#nanoTime()} and report the
+ * outcome with one of the record methods. Recording only touches atomic
+ * counters: it never locks and never allocates, so it is safe on hot paths
+ * and from any number of threads.
+ * </p>
+ * <p>
+ * Only successful calls go into the latency histogram; failures are counted
+ * separately so a burst of timeouts does not hide the normal latency.
+ * </p>
+ */
+public class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();   // Rows returned or written by successful calls
+    private final LongAdder errors = new LongAdder(); // Calls that threw
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a successful call.
+     * @param startNanos System.nanoTime() taken when the call started
+     * @param rowCount Rows returned or written
+     */
+    public void recordSuccess(long startNanos, long rowCount) {
+        latency.record(System.nanoTime() - startNanos);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Records a successful call and passes its result through. Rows are
+     * the collection size, 0 for null, or 1 for any other value.
+     * @param startNanos System.nanoTime() taken when the call started
+     * @param result Value returned by the call
+     * @return result
+     */
+    public <T> T recordResult(long startNanos, T result) {
+        recordSuccess(startNanos, result == null ? 0 : result instanceof Collection ? ((Collection<?>) result).size() : 1);
+        return result;
+    }
+
+    /**
+     * Records a successful call whose latency was measured by the caller.
+     * @param nanos Latency in nanoseconds
+     */
+    public void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * Records a call that failed.
+     */
+    public void recordFailure() {
+        errors.increment();
+    }
+
+    /**
+     * Gets a snapshot of the counters.
+     * @return Count, rows, errors and latency percentiles
+     */
+    public OperationStats getStats() {
+        long[] percentiles = latency.getPercentilesNanos(50, 90, 99, 99.9); // One copy of the buckets
+        return new OperationStats(name, latency.getCount(), rows.sum(), errors.sum(),
+            (long) latency.getMeanNanos(), percentiles[0], percentiles[1],
+            percentiles[2], percentiles[3], latency.getMaxNanos());
+    }
+}
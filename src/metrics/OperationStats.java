@@ -0,0 +1,48 @@
+package metrics;
+
+/**
+ * Point-in-time snapshot of {@link OperationMetrics} counters.
+ */
+public class OperationStats {
+    private final String name;       // Operation name, e.g. "dao.read"
+    private final long count;        // Successful calls
+    private final long rows;         // Rows returned or written by successful calls
+    private final long errors;       // Calls that threw
+    private final long meanNanos;    // Mean latency of successful calls
+    private final long p50Nanos;     // Median latency
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;     // Slowest call seen
+
+    public OperationStats(String name, long count, long rows, long errors, long meanNanos,
+                          long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.name = name;
+        this.count = count;
+        this.rows = rows;
+        this.errors = errors;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getRows() { return rows; }
+    public long getErrors() { return errors; }
+    public long getMeanNanos() { return meanNanos; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP90Nanos() { return p90Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getP999Nanos() { return p999Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d rows=%d errors=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+            name, count, rows, errors, meanNanos / 1e3, p50Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,123 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Standard letter grades, best first.
+ * <p>
+ * Grades are parsed from text once (when read from the database, a CSV
+ * file or a form) and are then compared, colored and aggregated by
+ * ordinal, with no string work. A student without a grade has a null Grade.
+ * </p>
+ */
+public enum Grade {
+    A_PLUS("A+", 4.0, 0x009600),   // Green for A
+    A("A", 4.0, 0x009600),
+    A_MINUS("A-", 3.7, 0x009600),
+    B_PLUS("B+", 3.3, 0xFF8C00),   // Orange for B
+    B("B", 3.0, 0xFF8C00),
+    B_MINUS("B-", 2.7, 0xFF8C00),
+    C_PLUS("C+", 2.3, 0xFF4500),   // Red-Orange for C
+    C("C", 2.0, 0xFF4500),
+    C_MINUS("C-", 1.7, 0xFF4500),
+    D_PLUS("D+", 1.3, 0xFF0000),   // Red for D/F
+    D("D", 1.0, 0xFF0000),
+    D_MINUS("D-", 0.7, 0xFF0000),
+    F("F", 0.0, 0xFF0000);
+    
+    private static final Grade[] VALUES = values();
+    private static final Map<String, Grade> BY_LABEL = new HashMap<>();
+    
+    static {
+        for (Grade grade : VALUES) {
+            BY_LABEL.put(grade.label, grade);
+            BY_LABEL.put(grade.label.toLowerCase(Locale.ROOT), grade);
+        }
+    }
+    
+    private final String label;
+    private final double gpaPoints;
+    private final int rgb;
+    
+    Grade(String label, double gpaPoints, int rgb) {
+        this.label = label;
+        this.gpaPoints = gpaPoints;
+        this.rgb = rgb;
+    }
+    
+    public String getLabel() { return label; }
+    public double getGpaPoints() { return gpaPoints; }
+    public char getLetter() { return label.charAt(0); }
+    
+    /**
+     * Display color for this grade.
+     * @return Color as 0xRRGGBB
+     */
+    public int getRgb() { return rgb; }
+    
+    /**
+     * Parses a grade such as "B+" (case-insensitive, surrounding spaces ignored).
+     * @param text Grade text; null or blank means no grade
+     * @return The grade, or null for no grade
+     * @throws IllegalArgumentException if the text is not a standard letter grade
+     */
+    public static Grade parse(String text) {
+        if (text == null) return null;
+        Grade grade = BY_LABEL.get(text); // Fast path: already clean
+        if (grade != null) return grade;
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) return null; // Grade is optional
+        grade = BY_LABEL.get(trimmed.toUpperCase(Locale.ROOT));
+        if (grade == null) {
+            throw new IllegalArgumentException("Invalid grade format. Use A+, A, A-, B+, etc.");
+        }
+        return grade;
+    }
+    
+    /**
+     * Like {@link #parse}, but returns null for text that is not a grade.
+     * Used for stored data, where one bad value should not fail a whole read.
+     * @param text Grade text
+     * @return The grade, or null
+     */
+    public static Grade fromLabel(String text) {
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Looks up a grade by ordinal (for compact storage).
+     * @param ordinal Ordinal, or -1 for no grade
+     * @return The grade, or null for -1
+     */
+    public static Grade fromOrdinal(int ordinal) {
+        return ordinal < 0 ? null : VALUES[ordinal];
+    }
+    
+    /**
+     * Label of a possibly missing grade.
+     * @param grade Grade or null
+     * @return The label, or null for no grade
+     */
+    public static String labelOf(Grade grade) {
+        return grade == null ? null : grade.label;
+    }
+    
+    /**
+     * Number of grades (for arrays indexed by ordinal).
+     * @return Count of grade values
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+    
+    @Override
+    public String toString() {
+        return label;
+    }
+}
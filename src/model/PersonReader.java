@@ -0,0 +1,38 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Read-only access to person records.
+ * Implemented by services (through {@code PersonService}) and by in-memory
+ * stores such as {@link StudentColumnStore}.
+ * 
+ * @param <T> Type extending Person (e.g., Student, Teacher)
+ */
+public interface PersonReader<T extends Person> {
+    
+    /**
+     * Retrieve a person by their unique ID.
+     * @param id The ID of the person to retrieve
+     * @return The person object, or null if not found
+     * @throws Exception If operation fails
+     */
+    T getPerson(int id) throws Exception;
+    
+    /**
+     * Get all person records from the system.
+     * @return List of all persons
+     * @throws Exception If operation fails
+     */
+    List<T> getAllPersons() throws Exception;
+    
+    /**
+     * Get one page of person records in ID order (keyset pagination).
+     * Pass the ID of the last person on the previous page to get the next one.
+     * @param afterId Return persons with an ID greater than this (0 for the first page)
+     * @param limit Maximum number of persons to return
+     * @return Up to limit persons ordered by ID
+     * @throws Exception If operation fails
+     */
+    List<T> getPersonsPage(int afterId, int limit) throws Exception;
+}
@@ -2,22 +2,51 @@ package model;
 
 public class Student extends Person {
     private String course;
-    private String grade;
+    private Grade grade;
+    private String legacyGrade; // Stored grade text that is not a standard grade (kept so writes do not lose it)
     
     public Student() {}
     
     // UPDATED constructor to match YOUR database columns
-    public Student(int id, String name, int age, String email, String course, String grade) {
+    public Student(int id, String name, int age, String email, String course, Grade grade) {
         super(id, name, age, email);
         this.course = course;
         this.grade = grade;
     }
     
+    // Copy constructor (used by caches to hand out independent copies)
+    public Student(Student other) {
+        this(other.id, other.name, other.age, other.email, other.course, other.grade);
+        this.legacyGrade = other.legacyGrade;
+    }
+    
     public String getCourse() { return course; }
     public void setCourse(String course) { this.course = course; }
     
-    public String getGrade() { return grade; }
-    public void setGrade(String grade) { this.grade = grade; }
+    public Grade getGrade() { return grade; }
+    public void setGrade(Grade grade) {
+        this.grade = grade;
+        this.legacyGrade = null; // An explicit grade replaces any legacy value
+    }
+    
+    /**
+     * Sets the grade from stored text. Text that is not a standard grade is
+     * kept as is, so writing the student back does not change the column.
+     * @param label Grade text as stored (may be null)
+     */
+    public void setGradeLabel(String label) {
+        this.grade = Grade.fromLabel(label);
+        this.legacyGrade = grade == null && label != null && !label.trim().isEmpty() ? label : null;
+    }
+    
+    /**
+     * Grade text to store or export: the grade's label, or the legacy text
+     * that could not be parsed.
+     * @return Label, or null for no grade
+     */
+    public String getGradeLabel() {
+        return grade != null ? grade.getLabel() : legacyGrade;
+    }
     
     @Override
     public String getDisplayText() {
@@ -0,0 +1,469 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact, column-oriented in-memory store of students.
+ * <p>
+ * Instead of one Student object (plus four Strings) per row, each field is
+ * kept in its own primitive array, indexed by row, with rows in ID order:
+ * </p>
+ * <ul>
+ * <li>ids and ages in int arrays;</li>
+ * <li>courses as 16-bit codes into a course dictionary;</li>
+ * <li>grades as byte codes ({@link Grade} ordinal + 1, 0 = no grade, negative =
+ *     legacy grade text from a small dictionary);</li>
+ * <li>names and emails as UTF-8 in one shared byte array, referenced by offset.</li>
+ * </ul>
+ * <p>
+ * A student costs roughly 20 bytes of columns plus its name and email
+ * bytes, instead of a few hundred bytes as objects. Scans over a column
+ * (counting by course, averaging ages) read consecutive memory and
+ * allocate nothing. {@link #forEach} and {@link #filter} hand out a reused
+ * {@link StudentView} flyweight; Student objects are only created for the
+ * rows returned. Safe for concurrent use.
+ * </p>
+ */
+public class StudentColumnStore implements PersonReader<Student> {
+    private static final int MAX_TEXT_BYTES = 0xFFFF; // Strings are stored with a 2-byte length
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Columns (row i of every array describes the same student)
+    private int size;
+    private int[] ids = new int[1024];          // Ascending
+    private int[] ages = new int[1024];
+    private char[] courseCodes = new char[1024]; // Index into courses (unsigned 16-bit)
+    private byte[] gradeCodes = new byte[1024];  // Grade ordinal + 1; 0 = no grade; -1 - i = legacyGrades[i]
+    private int[] nameRefs = new int[1024];      // Offset of the name in text (-1 = null)
+    private int[] emailRefs = new int[1024];     // Offset of the email in text (-1 = null)
+    
+    // Dictionaries
+    private final List<String> courses = new ArrayList<>();
+    private final Map<String, Integer> courseCodeByName = new HashMap<>();
+    private final List<String> legacyGrades = new ArrayList<>(); // Stored grade text that is not a standard grade
+    private final Map<String, Integer> legacyGradeIndex = new HashMap<>();
+    
+    // Text arena: each string is a 2-byte length followed by its UTF-8 bytes
+    private byte[] text = new byte[64 * 1024];
+    private int textLength;
+    private int textGarbage; // Bytes of strings no row refers to any more
+    
+    public StudentColumnStore() {
+        courses.add(null); // Code 0 = no course
+    }
+    
+    /**
+     * Builds a store from students in any order (fastest in ID order).
+     * @param students Students to add (e.g. a database stream's iterator)
+     * @return The filled store
+     */
+    public static StudentColumnStore of(Iterator<Student> students) {
+        StudentColumnStore store = new StudentColumnStore();
+        while (students.hasNext()) {
+            store.put(students.next());
+        }
+        return store;
+    }
+    
+    // ---------- Updates ----------
+    
+    /**
+     * Adds a student, or replaces the one with the same ID.
+     * @param student Student to store (its values are copied)
+     */
+    public void put(Student student) {
+        lock.writeLock().lock();
+        try {
+            int row = search(student.getId());
+            if (row >= 0) {
+                textGarbage += stringBytes(nameRefs[row]) + stringBytes(emailRefs[row]);
+            } else {
+                row = -row - 1;
+                insertRow(row);
+                ids[row] = student.getId();
+            }
+            ages[row] = student.getAge();
+            courseCodes[row] = (char) courseCode(student.getCourse());
+            gradeCodes[row] = gradeCode(student);
+            nameRefs[row] = addText(student.getName());
+            emailRefs[row] = addText(student.getEmail());
+            compactTextIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Removes a student.
+     * @param id Student ID
+     * @return true if the student was stored
+     */
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int row = search(id);
+            if (row < 0) return false;
+            textGarbage += stringBytes(nameRefs[row]) + stringBytes(emailRefs[row]);
+            int tail = size - row - 1;
+            System.arraycopy(ids, row + 1, ids, row, tail);
+            System.arraycopy(ages, row + 1, ages, row, tail);
+            System.arraycopy(courseCodes, row + 1, courseCodes, row, tail);
+            System.arraycopy(gradeCodes, row + 1, gradeCodes, row, tail);
+            System.arraycopy(nameRefs, row + 1, nameRefs, row, tail);
+            System.arraycopy(emailRefs, row + 1, emailRefs, row, tail);
+            size--;
+            compactTextIfWasteful();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // ---------- PersonReader ----------
+    
+    @Override
+    public Student getPerson(int id) {
+        lock.readLock().lock();
+        try {
+            int row = search(id);
+            return row >= 0 ? toStudent(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Student> getAllPersons() {
+        return getPersonsPage(0, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public List<Student> getPersonsPage(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            int row = search(afterId);
+            row = row >= 0 ? row + 1 : -row - 1; // First row with an ID above afterId
+            int end = (int) Math.min(size, (long) row + limit);
+            List<Student> page = new ArrayList<>(Math.max(0, end - row));
+            for (; row < end; row++) {
+                page.add(toStudent(row));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // ---------- Scans ----------
+    
+    /**
+     * Number of stored students.
+     * @return Row count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Calls an action for every student in ID order. The view passed in is
+     * reused for each row: read from it, don't keep it (use
+     * {@link StudentView#toStudent()} to keep a row). The store must not be
+     * modified from inside the action.
+     * @param action Action to run per row
+     */
+    public void forEach(Consumer<StudentView> action) {
+        lock.readLock().lock();
+        try {
+            StudentView view = new StudentView();
+            for (int row = 0; row < size; row++) {
+                view.row = row;
+                action.accept(view);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds the students matching a condition.
+     * @param condition Tested against a reused view of each row
+     * @return Matching students in ID order
+     */
+    public List<Student> filter(Predicate<StudentView> condition) {
+        List<Student> matches = new ArrayList<>();
+        forEach(view -> {
+            if (condition.test(view)) matches.add(view.toStudent());
+        });
+        return matches;
+    }
+    
+    /**
+     * Counts students per course (one pass over the 16-bit course codes).
+     * @return Student count per course, in first-seen order
+     */
+    public Map<String, Integer> countByCourse() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[courses.size()];
+            for (int row = 0; row < size; row++) {
+                counts[courseCodes[row]]++;
+            }
+            return toMap(courses, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Counts students per grade.
+     * @return Student count per grade, best first (null key = no grade or
+     *         legacy grade text, listed first)
+     */
+    public Map<Grade, Integer> countByGrade() {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[Grade.count() + 1];
+            for (int row = 0; row < size; row++) {
+                counts[Math.max(0, gradeCodes[row])]++;
+            }
+            Map<Grade, Integer> result = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) result.put(Grade.fromOrdinal(code - 1), counts[code]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Average GPA points of the students that have a standard grade.
+     * @return Mean GPA points, or 0 when nobody has a grade
+     */
+    public double averageGpa() {
+        lock.readLock().lock();
+        try {
+            double[] points = new double[Grade.count() + 1];
+            for (int code = 1; code < points.length; code++) {
+                points[code] = Grade.fromOrdinal(code - 1).getGpaPoints();
+            }
+            double total = 0;
+            int graded = 0;
+            for (int row = 0; row < size; row++) {
+                int code = gradeCodes[row];
+                if (code <= 0) continue; // No grade, or legacy text without points
+                total += points[code];
+                graded++;
+            }
+            return graded == 0 ? 0 : total / graded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Average age of the stored students.
+     * @return Mean age, or 0 when empty
+     */
+    public double averageAge() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int row = 0; row < size; row++) {
+                total += ages[row];
+            }
+            return size == 0 ? 0 : (double) total / size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Approximate heap used by the columns, dictionaries excluded.
+     * @return Bytes allocated for the arrays
+     */
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (4 + 4 + 2 + 1 + 4 + 4) + text.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // ---------- Internal helpers (callers hold the lock) ----------
+    
+    /**
+     * Binary search over the ID column.
+     * @return Row of the ID, or (-(insertion row) - 1) if absent
+     */
+    private int search(int id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+    
+    private void insertRow(int row) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            courseCodes = Arrays.copyOf(courseCodes, capacity);
+            gradeCodes = Arrays.copyOf(gradeCodes, capacity);
+            nameRefs = Arrays.copyOf(nameRefs, capacity);
+            emailRefs = Arrays.copyOf(emailRefs, capacity);
+        }
+        int tail = size - row; // Zero when appending in ID order
+        System.arraycopy(ids, row, ids, row + 1, tail);
+        System.arraycopy(ages, row, ages, row + 1, tail);
+        System.arraycopy(courseCodes, row, courseCodes, row + 1, tail);
+        System.arraycopy(gradeCodes, row, gradeCodes, row + 1, tail);
+        System.arraycopy(nameRefs, row, nameRefs, row + 1, tail);
+        System.arraycopy(emailRefs, row, emailRefs, row + 1, tail);
+        size++;
+    }
+    
+    private int courseCode(String course) {
+        if (course == null) return 0;
+        Integer code = courseCodeByName.get(course);
+        if (code == null) {
+            if (courses.size() > Character.MAX_VALUE) throw new IllegalStateException("Too many distinct courses");
+            code = courses.size();
+            courses.add(course);
+            courseCodeByName.put(course, code);
+        }
+        return code;
+    }
+    
+    /**
+     * Grade column value: ordinal + 1, 0 for no grade, or -1 - index of
+     * legacy grade text in legacyGrades.
+     */
+    private byte gradeCode(Student student) {
+        if (student.getGrade() != null) return (byte) (student.getGrade().ordinal() + 1);
+        String legacy = student.getGradeLabel();
+        if (legacy == null) return 0;
+        Integer index = legacyGradeIndex.get(legacy);
+        if (index == null) {
+            if (legacyGrades.size() > -Byte.MIN_VALUE - 1) throw new IllegalStateException("Too many distinct legacy grades");
+            index = legacyGrades.size();
+            legacyGrades.add(legacy);
+            legacyGradeIndex.put(legacy, index);
+        }
+        return (byte) (-1 - index);
+    }
+    
+    private String legacyGrade(int row) {
+        int code = gradeCodes[row];
+        return code < 0 ? legacyGrades.get(-1 - code) : null;
+    }
+    
+    private int addText(String value) {
+        if (value == null) return -1;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) throw new IllegalArgumentException("Text too long: " + bytes.length + " bytes");
+        if (textLength + 2 + bytes.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + 2 + bytes.length));
+        }
+        int ref = textLength;
+        text[ref] = (byte) (bytes.length >> 8);
+        text[ref + 1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, text, ref + 2, bytes.length);
+        textLength += 2 + bytes.length;
+        return ref;
+    }
+    
+    private int stringBytes(int ref) {
+        return ref < 0 ? 0 : 2 + textLengthAt(ref);
+    }
+    
+    private int textLengthAt(int ref) {
+        return (text[ref] & 0xFF) << 8 | text[ref + 1] & 0xFF;
+    }
+    
+    private String textAt(int ref) {
+        return ref < 0 ? null : new String(text, ref + 2, textLengthAt(ref), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Rewrites the text arena without dead strings once they take up more than half of it.
+     */
+    private void compactTextIfWasteful() {
+        if (textGarbage < 1024 * 1024 || textGarbage < textLength / 2) return;
+        byte[] compacted = new byte[Math.max(64 * 1024, (textLength - textGarbage) * 2)];
+        int length = 0;
+        for (int row = 0; row < size; row++) {
+            for (int[] refs : new int[][] {nameRefs, emailRefs}) {
+                int ref = refs[row];
+                if (ref < 0) continue;
+                int n = 2 + textLengthAt(ref);
+                System.arraycopy(text, ref, compacted, length, n);
+                refs[row] = length;
+                length += n;
+            }
+        }
+        text = compacted;
+        textLength = length;
+        textGarbage = 0;
+    }
+    
+    private Student toStudent(int row) {
+        Student student = new Student(ids[row], textAt(nameRefs[row]), ages[row], textAt(emailRefs[row]),
+            courses.get(courseCodes[row]), Grade.fromOrdinal(gradeCodes[row] - 1));
+        String legacy = legacyGrade(row);
+        if (legacy != null) student.setGradeLabel(legacy); // Kept as stored, like the database column
+        return student;
+    }
+    
+    private static Map<String, Integer> toMap(List<String> names, int[] counts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) result.put(names.get(code), counts[code]);
+        }
+        return result;
+    }
+    
+    /**
+     * Flyweight view of one row, handed out by {@link #forEach} and
+     * {@link #filter}. Numeric fields, the course and the grade are read
+     * without allocating; getName/getEmail decode a String on each call.
+     */
+    public final class StudentView {
+        private int row;
+        
+        private StudentView() {}
+        
+        public int getId() { return ids[row]; }
+        public int getAge() { return ages[row]; }
+        public String getCourse() { return courses.get(courseCodes[row]); }
+        public Grade getGrade() { return Grade.fromOrdinal(gradeCodes[row] - 1); } // null for legacy text
+        public String getGradeLabel() {
+            String legacy = legacyGrade(row);
+            return legacy != null ? legacy : Grade.labelOf(getGrade());
+        }
+        public String getName() { return textAt(nameRefs[row]); }
+        public String getEmail() { return textAt(emailRefs[row]); }
+        
+        /**
+         * Copies the row into a new Student that can be kept.
+         * @return Independent Student object
+         */
+        public Student toStudent() {
+            return StudentColumnStore.this.toStudent(row);
+        }
+    }
+}
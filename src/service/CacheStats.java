@@ -0,0 +1,44 @@
+package service;
+
+/**
+ * Point-in-time snapshot of {@link EntityCache} statistics.
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;    // Entries dropped because the cache was full
+    private final long expirations;  // Entries dropped because they outlived the TTL
+    private final int size;
+    private final int maxSize;
+    
+    public CacheStats(long hits, long misses, long evictions, long expirations, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+    
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    
+    /**
+     * Fraction of lookups answered from the cache.
+     * @return Hit rate between 0.0 and 1.0 (0.0 before any lookup)
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.1f%% evictions=%d expirations=%d size=%d/%d",
+            hits, misses, getHitRate() * 100, evictions, expirations, size, maxSize);
+    }
+}
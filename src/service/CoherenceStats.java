@@ -0,0 +1,55 @@
+package service;
+
+/**
+ * Point-in-time snapshot of {@link InvalidationBus} statistics.
+ * <p>
+ * The staleness window is how long a change made at another desk could
+ * still be served from this process's caches: from the change's commit
+ * time (database clock) until every subscriber had applied it.
+ * Invalidation latency is the part of that spent delivering a fetched
+ * change set to the subscribers.
+ * </p>
+ */
+public class CoherenceStats {
+    private final long polls;                  // Successful polls of the change log
+    private final long failedPolls;            // Polls that hit a database error
+    private final long changeSets;             // Polls that found changes
+    private final long invalidatedIds;         // Changed + deleted IDs delivered to subscribers
+    private final long lastStalenessMillis;    // Staleness window of the latest change set
+    private final long avgStalenessMillis;
+    private final long maxStalenessMillis;
+    private final long avgInvalidationMicros;  // Time to apply a change set in all subscribers
+    private final long maxInvalidationMicros;
+    
+    public CoherenceStats(long polls, long failedPolls, long changeSets, long invalidatedIds,
+                          long lastStalenessMillis, long avgStalenessMillis, long maxStalenessMillis,
+                          long avgInvalidationMicros, long maxInvalidationMicros) {
+        this.polls = polls;
+        this.failedPolls = failedPolls;
+        this.changeSets = changeSets;
+        this.invalidatedIds = invalidatedIds;
+        this.lastStalenessMillis = lastStalenessMillis;
+        this.avgStalenessMillis = avgStalenessMillis;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.avgInvalidationMicros = avgInvalidationMicros;
+        this.maxInvalidationMicros = maxInvalidationMicros;
+    }
+    
+    public long getPolls() { return polls; }
+    public long getFailedPolls() { return failedPolls; }
+    public long getChangeSets() { return changeSets; }
+    public long getInvalidatedIds() { return invalidatedIds; }
+    public long getLastStalenessMillis() { return lastStalenessMillis; }
+    public long getAvgStalenessMillis() { return avgStalenessMillis; }
+    public long getMaxStalenessMillis() { return maxStalenessMillis; }
+    public long getAvgInvalidationMicros() { return avgInvalidationMicros; }
+    public long getMaxInvalidationMicros() { return maxInvalidationMicros; }
+    
+    @Override
+    public String toString() {
+        return String.format("polls=%d failed=%d changeSets=%d invalidatedIds=%d staleness(last/avg/max)=%d/%d/%dms " +
+                             "invalidation(avg/max)=%d/%dus",
+            polls, failedPolls, changeSets, invalidatedIds, lastStalenessMillis, avgStalenessMillis,
+            maxStalenessMillis, avgInvalidationMicros, maxInvalidationMicros);
+    }
+}
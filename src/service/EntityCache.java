@@ -0,0 +1,136 @@
+package service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded in-memory cache of entities keyed by ID, with LRU eviction when
+ * full and a time-to-live after which entries are reloaded.
+ * <p>
+ * Values are copied on the way in and out, so callers may freely modify the
+ * objects they get back without corrupting the cache. Thread-safe.
+ * </p>
+ * 
+ * @param <T> Entity type
+ */
+public class EntityCache<T> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copier; // Makes a defensive copy of an entity
+    private final LinkedHashMap<Integer, Entry<T>> entries;
+    
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long writeCount; // Bumped on every put/invalidate; guards read-through loads
+    
+    /**
+     * Creates a cache.
+     * @param maxSize Maximum number of entries (least recently used is evicted first)
+     * @param ttlMillis How long an entry stays valid
+     * @param copier Function that copies an entity
+     */
+    public EntityCache(int maxSize, long ttlMillis, UnaryOperator<T> copier) {
+        if (maxSize < 1) throw new IllegalArgumentException("Cache size must be at least 1");
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Looks up an entity.
+     * @param id Entity ID
+     * @return A copy of the cached entity, or null on a miss (absent or expired)
+     */
+    public synchronized T get(int id) {
+        Entry<T> entry = entries.get(id);
+        if (entry != null && System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(id);
+            expirations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copier.apply(entry.value);
+    }
+    
+    /**
+     * Stores the current version of an entity (e.g. after a write).
+     * @param id Entity ID
+     * @param value Entity to cache (a copy is stored)
+     */
+    public synchronized void put(int id, T value) {
+        writeCount++;
+        entries.put(id, new Entry<>(copier.apply(value), System.nanoTime()));
+    }
+    
+    /**
+     * Removes an entity (e.g. after it was deleted or changed elsewhere).
+     * @param id Entity ID
+     */
+    public synchronized void invalidate(int id) {
+        writeCount++;
+        entries.remove(id);
+    }
+    
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        writeCount++;
+        entries.clear();
+    }
+    
+    /**
+     * Gets a stamp to take before loading a missed entity from the database.
+     * @return Current write stamp for {@link #putLoaded(int, Object, long)}
+     */
+    public synchronized long loadStamp() {
+        return writeCount;
+    }
+    
+    /**
+     * Caches an entity loaded after a miss, unless a write happened in the
+     * meantime: the loaded value might then be older than what was written.
+     * @param id Entity ID
+     * @param value Loaded entity (null values are not cached)
+     * @param stamp Stamp taken with {@link #loadStamp()} before the load
+     */
+    public synchronized void putLoaded(int id, T value, long stamp) {
+        if (value == null || stamp != writeCount) return;
+        entries.put(id, new Entry<>(copier.apply(value), System.nanoTime()));
+    }
+    
+    /**
+     * Gets cache statistics.
+     * @return Snapshot of hit/miss/eviction counters
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, expirations, entries.size(), maxSize);
+    }
+    
+    private static final class Entry<T> {
+        final T value;
+        final long loadedAt; // System.nanoTime() when cached
+        
+        Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
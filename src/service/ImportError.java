@@ -0,0 +1,22 @@
+package service;
+
+/**
+ * A CSV row that could not be imported.
+ */
+public class ImportError {
+    private final long lineNumber; // Line in the file where the row starts (1-based)
+    private final String message;  // Why the row was rejected
+    
+    public ImportError(long lineNumber, String message) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+    
+    public long getLineNumber() { return lineNumber; }
+    public String getMessage() { return message; }
+    
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + message;
+    }
+}
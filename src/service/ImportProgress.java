@@ -0,0 +1,37 @@
+package service;
+
+/**
+ * Point-in-time progress of a running {@link StudentImporter} import.
+ */
+public class ImportProgress {
+    private final long rowsRead;      // Data rows parsed from the file so far
+    private final long rowsImported;  // Rows committed to the database
+    private final long rowsFailed;    // Rows rejected by validation or the database
+    private final long elapsedMillis;
+    
+    public ImportProgress(long rowsRead, long rowsImported, long rowsFailed, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsFailed() { return rowsFailed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    /**
+     * Import throughput so far.
+     * @return Rows committed per second (0 before the first commit)
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : rowsImported * 1000 / elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("read=%d imported=%d failed=%d elapsed=%dms rate=%d rows/s",
+            rowsRead, rowsImported, rowsFailed, elapsedMillis, getRowsPerSecond());
+    }
+}
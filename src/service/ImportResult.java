@@ -0,0 +1,36 @@
+package service;
+
+import java.util.List;
+
+/**
+ * Outcome of a finished (or cancelled) {@link StudentImporter} import.
+ */
+public class ImportResult {
+    private final ImportProgress totals;     // Final counters
+    private final List<ImportError> errors;  // First rejected rows, in line order
+    private final boolean cancelled;
+    
+    public ImportResult(ImportProgress totals, List<ImportError> errors, boolean cancelled) {
+        this.totals = totals;
+        this.errors = errors;
+        this.cancelled = cancelled;
+    }
+    
+    public long getRowsImported() { return totals.getRowsImported(); }
+    public long getRowsFailed() { return totals.getRowsFailed(); }
+    public long getElapsedMillis() { return totals.getElapsedMillis(); }
+    public long getRowsPerSecond() { return totals.getRowsPerSecond(); }
+    public boolean isCancelled() { return cancelled; }
+    
+    /**
+     * Gets the rejected rows. Only the first {@link StudentImporter#MAX_REPORTED_ERRORS}
+     * are kept; {@link #getRowsFailed()} counts all of them.
+     * @return Errors sorted by line number
+     */
+    public List<ImportError> getErrors() { return errors; }
+    
+    @Override
+    public String toString() {
+        return totals + (cancelled ? " (cancelled)" : "");
+    }
+}
@@ -0,0 +1,207 @@
+package service;
+
+import db.ChangeSet;
+import db.MeteredStudentDAO;
+import db.StudentDAO;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts student changes made by any app instance to the caches of this one.
+ * <p>
+ * The students table's change tracking (updated_at plus the students_deleted
+ * tombstones) serves as a shared change log: one background thread polls it
+ * through {@link StudentDAO#findChangedSince} and hands each non-empty
+ * {@link ChangeSet} to every subscriber, which evicts or refreshes just the
+ * affected IDs. Every desk running against the same database sees every
+ * other desk's writes within one poll interval.
+ * </p>
+ */
+public class InvalidationBus {
+    private static InvalidationBus shared;
+    
+    private final StudentDAO studentDAO;
+    private final long intervalMillis;
+    private final long createdNanos = System.nanoTime();
+    private final List<Consumer<ChangeSet>> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private boolean started;
+    private Timestamp watermark;  // Only touched on the poller thread
+    private boolean failing;      // Last poll failed (log once per outage)
+    
+    // Statistics
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder failedPolls = new LongAdder();
+    private final LongAdder changeSets = new LongAdder();
+    private final LongAdder invalidatedIds = new LongAdder();
+    private final AtomicLong lastStalenessMillis = new AtomicLong();
+    private final LongAdder stalenessMillis = new LongAdder();
+    private final LongAdder stalenessSamples = new LongAdder();
+    private final AtomicLong maxStalenessMillis = new AtomicLong();
+    private final LongAdder invalidationNanos = new LongAdder();
+    private final AtomicLong maxInvalidationNanos = new AtomicLong();
+    
+    /**
+     * Gets the bus shared by all services in this process
+     * (poll interval can be set with -Dcache.sync.intervalMillis=...).
+     * @return The shared bus
+     */
+    public static synchronized InvalidationBus shared() {
+        if (shared == null) {
+            shared = new InvalidationBus(new MeteredStudentDAO(), Long.getLong("cache.sync.intervalMillis", 5000L));
+        }
+        return shared;
+    }
+    
+    public InvalidationBus(StudentDAO studentDAO, long intervalMillis) {
+        if (intervalMillis < 1) throw new IllegalArgumentException("Poll interval must be at least 1 ms");
+        this.studentDAO = studentDAO;
+        this.intervalMillis = intervalMillis;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "student-invalidation-bus");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Registers a subscriber. Subscribers are called on the poller thread, one
+     * change set at a time, and must be idempotent: a change can be delivered
+     * more than once. Nothing is delivered until {@link #start} is called.
+     * @param subscriber Receives each non-empty change set
+     */
+    public void subscribe(Consumer<ChangeSet> subscriber) {
+        subscribers.add(subscriber);
+    }
+    
+    /**
+     * Removes a subscriber.
+     * @param subscriber Subscriber passed to {@link #subscribe}
+     */
+    public void unsubscribe(Consumer<ChangeSet> subscriber) {
+        subscribers.remove(subscriber);
+    }
+    
+    /**
+     * Starts polling every interval (does nothing if already started). The
+     * first poll covers everything changed since the bus was created.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Exception e) {
+                // Already counted and logged; try again next interval
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Polls right away instead of waiting for the next interval.
+     * @return Future completed once the changes found were delivered
+     */
+    public CompletableFuture<Void> pollNow() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        poller.execute(() -> {
+            try {
+                poll();
+                future.complete(null);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Gets staleness and invalidation latency statistics.
+     * @return Snapshot of bus counters
+     */
+    public CoherenceStats getStats() {
+        long samples = stalenessSamples.sum();
+        long delivered = changeSets.sum();
+        return new CoherenceStats(polls.sum(), failedPolls.sum(), delivered, invalidatedIds.sum(),
+            lastStalenessMillis.get(),
+            samples == 0 ? 0 : stalenessMillis.sum() / samples,
+            maxStalenessMillis.get(),
+            delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(invalidationNanos.sum() / delivered),
+            TimeUnit.NANOSECONDS.toMicros(maxInvalidationNanos.get()));
+    }
+    
+    /**
+     * Stops polling.
+     */
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+    
+    // ---------- Internal helpers ----------
+    
+    /**
+     * Fetches changes since the last poll and delivers them. Runs on the poller thread only.
+     */
+    private void poll() throws Exception {
+        try {
+            if (watermark == null) {
+                // First poll: start from when the bus was created, so rows cached since then are covered
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos);
+                watermark = new Timestamp(studentDAO.getTableState().getServerTime().getTime() - elapsedMillis);
+            }
+            
+            long start = System.nanoTime();
+            ChangeSet changes = studentDAO.findChangedSince(watermark);
+            long fetched = System.nanoTime();
+            watermark = changes.getWatermark();
+            polls.increment();
+            if (failing) {
+                failing = false;
+                System.out.println("✅ Change polling recovered");
+            }
+            if (changes.isEmpty()) return;
+            
+            for (Consumer<ChangeSet> subscriber : subscribers) {
+                try {
+                    subscriber.accept(changes);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Invalidation subscriber failed: " + e.getMessage());
+                }
+            }
+            long applied = System.nanoTime();
+            recordDelivery(changes, start, fetched, applied);
+        } catch (Exception e) {
+            failedPolls.increment();
+            if (!failing) {
+                failing = true;
+                System.err.println("⚠️ Change polling failed (will retry): " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+    
+    private void recordDelivery(ChangeSet changes, long start, long fetched, long applied) {
+        changeSets.increment();
+        invalidatedIds.add(changes.getChanged().size() + changes.getDeletedIds().size());
+        invalidationNanos.add(applied - fetched);
+        maxInvalidationNanos.accumulateAndGet(applied - fetched, Math::max);
+        
+        if (changes.getOldestChange() != null) {
+            // Both timestamps come from the database clock, so desk clock skew does not matter
+            long beforePoll = changes.getWatermark().getTime() - changes.getOldestChange().getTime();
+            long staleness = Math.max(0, beforePoll) + TimeUnit.NANOSECONDS.toMillis(applied - start);
+            lastStalenessMillis.set(staleness);
+            stalenessMillis.add(staleness);
+            stalenessSamples.increment();
+            maxStalenessMillis.accumulateAndGet(staleness, Math::max);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package service;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import model.Student;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * StudentService that records latency, rows and errors of the
+ * {@link PersonService} calls and searches under "service.*" in
+ * {@link Metrics}. Compared with the "dao.*" metrics of the same call this
+ * shows what the cache and search index save (and what validation costs).
+ * <p>
+ * The *Async methods call these methods on their executor, so they are
+ * recorded too. Recording is lock-free and allocation-free, apart from the
+ * completion callback searchStudentsAsync adds to its future.
+ * </p>
+ */
+public class MeteredStudentService extends StudentService {
+    private static final OperationMetrics ADD = Metrics.operation("service.addPerson");
+    private static final OperationMetrics ADD_ALL = Metrics.operation("service.addPersons");
+    private static final OperationMetrics GET = Metrics.operation("service.getPerson");
+    private static final OperationMetrics UPDATE = Metrics.operation("service.updatePerson");
+    private static final OperationMetrics DELETE = Metrics.operation("service.deletePerson");
+    private static final OperationMetrics GET_ALL = Metrics.operation("service.getAllPersons");
+    private static final OperationMetrics PAGE = Metrics.operation("service.getPersonsPage");
+    private static final OperationMetrics PAGE_BY_NAME = Metrics.operation("service.getStudentsPageByName");
+    private static final OperationMetrics PAGE_BY_COURSE = Metrics.operation("service.getStudentsPageByCourse");
+    private static final OperationMetrics SEARCH = Metrics.operation("service.searchStudents");
+
+    public MeteredStudentService() {
+        super();
+    }
+
+    public MeteredStudentService(InvalidationBus invalidationBus) {
+        super(invalidationBus);
+    }
+
+    @Override
+    public void addPerson(Student student) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.addPerson(student);
+            ADD.recordSuccess(start, 1);
+        } catch (Exception e) {
+            ADD.recordFailure(); // Includes validation failures
+            throw e;
+        }
+    }
+
+    @Override
+    public void addPersons(List<Student> students) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.addPersons(students);
+            ADD_ALL.recordSuccess(start, students.size());
+        } catch (Exception e) {
+            ADD_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public Student getPerson(int id) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return GET.recordResult(start, super.getPerson(id));
+        } catch (Exception e) {
+            GET.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void updatePerson(Student student) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.updatePerson(student);
+            UPDATE.recordSuccess(start, 1);
+        } catch (Exception e) {
+            UPDATE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public void deletePerson(int id) throws Exception {
+        long start = System.nanoTime();
+        try {
+            super.deletePerson(id);
+            DELETE.recordSuccess(start, 1);
+        } catch (Exception e) {
+            DELETE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> getAllPersons() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return GET_ALL.recordResult(start, super.getAllPersons());
+        } catch (Exception e) {
+            GET_ALL.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> getPersonsPage(int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return PAGE.recordResult(start, super.getPersonsPage(afterId, limit));
+        } catch (Exception e) {
+            PAGE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> getStudentsPageByName(String afterName, int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return PAGE_BY_NAME.recordResult(start, super.getStudentsPageByName(afterName, afterId, limit));
+        } catch (Exception e) {
+            PAGE_BY_NAME.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Student> getStudentsPageByCourse(String afterCourse, int afterId, int limit) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return PAGE_BY_COURSE.recordResult(start, super.getStudentsPageByCourse(afterCourse, afterId, limit));
+        } catch (Exception e) {
+            PAGE_BY_COURSE.recordFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    public SearchResult searchStudents(String keyword) throws Exception {
+        long start = System.nanoTime();
+        try {
+            SearchResult result = super.searchStudents(keyword);
+            SEARCH.recordSuccess(start, result.getStudents().size());
+            return result;
+        } catch (Exception e) {
+            SEARCH.recordFailure();
+            throw e;
+        }
+    }
+
+    // The index path completes without calling searchStudents(), so the future is timed instead;
+    // cancelled searches count as errors
+    @Override
+    public CompletableFuture<SearchResult> searchStudentsAsync(String keyword) {
+        long start = System.nanoTime();
+        CompletableFuture<SearchResult> future = super.searchStudentsAsync(keyword);
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                SEARCH.recordSuccess(start, result.getStudents().size());
+            } else {
+                SEARCH.recordFailure();
+            }
+        });
+        return future;
+    }
+}
@@ -1,15 +1,16 @@
 package service;
 
 import model.Person;
-import java.util.List;
+import model.PersonReader;
 
 /**
  * Service layer interface for Person entity operations.
  * Acts as a bridge between UI and data access layers.
+ * The read operations are inherited from {@link PersonReader}.
  * 
  * @param <T> Type extending Person (e.g., Student, Teacher)
  */
-public interface PersonService<T extends Person> {
+public interface PersonService<T extends Person> extends PersonReader<T> {
     
     /**
      * Add a new person record to the system.
@@ -18,14 +19,6 @@ public interface PersonService<T extends Person> {
      */
     void addPerson(T person) throws Exception;
     
-    /**
-     * Retrieve a person by their unique ID.
-     * @param id The ID of the person to retrieve
-     * @return The person object, or null if not found
-     * @throws Exception If operation fails
-     */
-    T getPerson(int id) throws Exception;
-    
     /**
      * Update an existing person's information.
      * @param person The person object with updated data
@@ -39,11 +32,4 @@ public interface PersonService<T extends Person> {
      * @throws Exception If operation fails
      */
     void deletePerson(int id) throws Exception;
-    
-    /**
-     * Get all person records from the system.
-     * @return List of all persons
-     * @throws Exception If operation fails
-     */
-    List<T> getAllPersons() throws Exception;
 }
\ No newline at end of file
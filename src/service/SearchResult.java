@@ -0,0 +1,39 @@
+package service;
+
+import model.Student;
+import java.util.List;
+
+/**
+ * Students matching a search, plus how many matched in total. The search
+ * index returns at most its result cap, so the total can be larger than
+ * the list.
+ */
+public class SearchResult {
+    private final List<Student> students;  // Best matches first (index) or in name order (database)
+    private final int totalMatches;        // Matches before the cap was applied
+
+    public SearchResult(List<Student> students, int totalMatches) {
+        this.students = students;
+        this.totalMatches = totalMatches;
+    }
+
+    /**
+     * Wraps an uncapped result (every match is in the list).
+     * @param students Matching students
+     * @return Result whose total is the list size
+     */
+    public static SearchResult complete(List<Student> students) {
+        return new SearchResult(students, students.size());
+    }
+
+    public List<Student> getStudents() { return students; }
+    public int getTotalMatches() { return totalMatches; }
+
+    /**
+     * Checks whether matches were left out because of the result cap.
+     * @return true if getTotalMatches() is larger than the list
+     */
+    public boolean isTruncated() {
+        return totalMatches > students.size();
+    }
+}
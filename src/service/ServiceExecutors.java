@@ -0,0 +1,40 @@
+package service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executor used for background (non-EDT) service calls.
+ * <p>
+ * On Java 21+ this is a virtual-thread-per-task executor, so blocking JDBC
+ * calls do not tie up platform threads. On older runtimes it falls back to
+ * a cached pool of daemon threads. The database connection pool bounds how
+ * many calls actually run against MySQL at once.
+ * </p>
+ */
+final class ServiceExecutors {
+    
+    private ServiceExecutors() {}
+    
+    /**
+     * Creates a new executor for blocking service calls.
+     * @param name Thread name prefix (used by the platform-thread fallback)
+     * @return Executor service
+     */
+    static ExecutorService newBlockingCallExecutor(String name) {
+        try {
+            // Looked up reflectively so the code still compiles and runs on Java 17
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+                t.setDaemon(true); // Never keep the JVM alive on exit
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package service;
+
+import model.Student;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes students to a CSV or JSON Lines file, optionally gzip-compressed.
+ * <p>
+ * Rows are encoded straight into a reusable direct buffer (UTF-8, with
+ * hand-written number formatting and escaping, so no per-row String is
+ * built) and the buffer is written to a FileChannel whenever it fills.
+ * With gzip the buffer goes through a Deflater into a second direct buffer.
+ * Fed from {@link StudentService#streamStudents()}, the whole table is
+ * exported from the database cursor without ever being held in memory.
+ * </p>
+ * <p>
+ * The file is written under a temporary name and renamed when complete,
+ * so a failed or cancelled export never leaves a truncated file behind.
+ * An exporter can be reused for several exports, but not concurrently.
+ * </p>
+ */
+public class StudentExporter {
+    
+    /**
+     * Output file formats.
+     */
+    public enum Format {
+        CSV,        // Header line, then one comma-separated row per student
+        JSON_LINES; // One JSON object per line
+        
+        /**
+         * Picks the format from a file name (.csv or .jsonl/.json, optionally followed by .gz).
+         * @param fileName File name
+         * @return Matching format, or null if the extension is not recognized
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".jsonl") || name.endsWith(".json")) return JSON_LINES;
+            return null;
+        }
+    }
+    
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final byte[] CSV_HEADER = "id,name,age,email,course,grade\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NO_INPUT = new byte[0];
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    
+    private final Format format;
+    private final boolean gzip;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);       // Encoded rows
+    private final ByteBuffer compressed;                                            // Deflater output (gzip only)
+    private final byte[] digits = new byte[11];                                     // Scratch for number formatting
+    private volatile boolean cancelled;
+    
+    // Per-export state
+    private FileChannel channel;
+    private Deflater deflater;
+    private CRC32 crc;
+    private long uncompressedBytes;
+    
+    /**
+     * Creates an exporter.
+     * @param format Output format
+     * @param gzip Whether to gzip-compress the output
+     */
+    public StudentExporter(Format format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+        this.compressed = gzip ? ByteBuffer.allocateDirect(BUFFER_SIZE) : null;
+    }
+    
+    /**
+     * Writes students to a file, replacing it if it exists.
+     * @param students Students to write (e.g. a database stream's iterator or a search result list)
+     * @param file Destination file
+     * @return Number of students written
+     * @throws IOException if the file cannot be written
+     * @throws CancellationException if {@link #cancel()} was called
+     */
+    public long export(Iterator<Student> students, Path file) throws IOException {
+        cancelled = false;
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long rows = 0;
+        boolean complete = false;
+        
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            begin(out);
+            if (format == Format.CSV) put(CSV_HEADER);
+            while (students.hasNext()) {
+                if (cancelled) throw new CancellationException("Export cancelled");
+                Student student = students.next();
+                if (format == Format.CSV) {
+                    writeCsv(student);
+                } else {
+                    writeJson(student);
+                }
+                rows++;
+            }
+            finish();
+            complete = true;
+        } finally {
+            end();
+            if (complete) {
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Stops a running export; {@link #export} then throws CancellationException.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    // ---------- Row encoding ----------
+    
+    private void writeCsv(Student student) throws IOException {
+        putInt(student.getId());
+        putByte(',');
+        putCsvField(student.getName());
+        putByte(',');
+        putInt(student.getAge());
+        putByte(',');
+        putCsvField(student.getEmail());
+        putByte(',');
+        putCsvField(student.getCourse());
+        putByte(',');
+        putCsvField(student.getGradeLabel());
+        putByte('\n');
+    }
+    
+    private void writeJson(Student student) throws IOException {
+        putAscii("{\"id\":");
+        putInt(student.getId());
+        putAscii(",\"name\":");
+        putJsonString(student.getName());
+        putAscii(",\"age\":");
+        putInt(student.getAge());
+        putAscii(",\"email\":");
+        putJsonString(student.getEmail());
+        putAscii(",\"course\":");
+        putJsonString(student.getCourse());
+        putAscii(",\"grade\":");
+        putJsonString(student.getGradeLabel());
+        putAscii("}\n");
+    }
+    
+    /**
+     * Writes a CSV field, quoting it only if it contains a comma, quote or line break.
+     */
+    private void putCsvField(String value) throws IOException {
+        if (value == null) return; // Empty field
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            putUtf8(value);
+            return;
+        }
+        putByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') putByte('"'); // Quotes are doubled
+            i += putChar(value, i) - 1;
+        }
+        putByte('"');
+    }
+    
+    private void putJsonString(String value) throws IOException {
+        if (value == null) {
+            putAscii("null");
+            return;
+        }
+        putByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                putByte('\\');
+                putByte(c);
+            } else if (c == '\n') {
+                putAscii("\\n");
+            } else if (c == '\r') {
+                putAscii("\\r");
+            } else if (c == '\t') {
+                putAscii("\\t");
+            } else if (c < 0x20) {
+                putAscii("\\u00");
+                putByte(HEX[c >> 4]);
+                putByte(HEX[c & 0xF]);
+            } else {
+                i += putChar(value, i) - 1;
+            }
+        }
+        putByte('"');
+    }
+    
+    // ---------- Buffer primitives ----------
+    
+    private void putByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) drain();
+        buffer.put((byte) b);
+    }
+    
+    private void put(byte[] bytes) throws IOException {
+        for (byte b : bytes) putByte(b);
+    }
+    
+    private void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) putByte(text.charAt(i));
+    }
+    
+    private void putUtf8(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            i += putChar(text, i) - 1;
+        }
+    }
+    
+    /**
+     * Encodes the character at index i as UTF-8.
+     * @return Number of chars consumed (2 for a surrogate pair)
+     */
+    private int putChar(String text, int i) throws IOException {
+        char c = text.charAt(i);
+        if (c < 0x80) {
+            putByte(c);
+        } else if (c < 0x800) {
+            putByte(0xC0 | c >> 6);
+            putByte(0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                   && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, text.charAt(i + 1));
+            putByte(0xF0 | cp >> 18);
+            putByte(0x80 | cp >> 12 & 0x3F);
+            putByte(0x80 | cp >> 6 & 0x3F);
+            putByte(0x80 | cp & 0x3F);
+            return 2;
+        } else if (Character.isSurrogate(c)) {
+            putByte('?'); // Unpaired surrogate - not encodable
+        } else {
+            putByte(0xE0 | c >> 12);
+            putByte(0x80 | c >> 6 & 0x3F);
+            putByte(0x80 | c & 0x3F);
+        }
+        return 1;
+    }
+    
+    /**
+     * Writes a decimal int without creating a String.
+     */
+    private void putInt(int value) throws IOException {
+        if (value == Integer.MIN_VALUE) {
+            putAscii("-2147483648");
+            return;
+        }
+        if (value < 0) {
+            putByte('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (pos < digits.length) putByte(digits[pos++]);
+    }
+    
+    // ---------- Channel output ----------
+    
+    private void begin(FileChannel out) throws IOException {
+        channel = out;
+        buffer.clear();
+        uncompressedBytes = 0;
+        if (gzip) {
+            deflater = new Deflater(Deflater.BEST_SPEED, true); // Raw deflate (gzip framing added here); fastest level keeps up with the disk
+            crc = new CRC32();
+            compressed.clear();
+            compressed.put(new byte[] {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff}); // Gzip header
+        }
+    }
+    
+    /**
+     * Empties the row buffer: to the file, or through the Deflater with gzip.
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        if (gzip) {
+            uncompressedBytes += buffer.remaining();
+            crc.update(buffer.duplicate());
+            deflater.setInput(buffer);
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            deflater.setInput(NO_INPUT); // Deflater keeps a reference; the buffer is about to be reused
+        } else {
+            writeFully(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private void deflate(int flush) throws IOException {
+        deflater.deflate(compressed, flush);
+        if (!compressed.hasRemaining()) {
+            compressed.flip();
+            writeFully(compressed);
+            compressed.clear();
+        }
+    }
+    
+    private void finish() throws IOException {
+        drain();
+        if (gzip) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            if (compressed.remaining() < 8) {
+                compressed.flip();
+                writeFully(compressed);
+                compressed.clear();
+            }
+            compressed.order(ByteOrder.LITTLE_ENDIAN);
+            compressed.putInt((int) crc.getValue());      // Gzip trailer: CRC-32 ...
+            compressed.putInt((int) uncompressedBytes);   // ... and size mod 2^32
+            compressed.order(ByteOrder.BIG_ENDIAN);
+            compressed.flip();
+            writeFully(compressed);
+            compressed.clear();
+        }
+        channel.force(false);
+    }
+    
+    private void end() {
+        if (deflater != null) {
+            deflater.end(); // Frees native zlib memory
+            deflater = null;
+        }
+        channel = null;
+    }
+    
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package service;
+
+import model.Grade;
+import model.Student;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of students from a CSV file.
+ * <p>
+ * Runs as a three-stage pipeline joined by bounded queues, so memory use is
+ * flat whatever the file size, and a slow stage (usually the database) holds
+ * back the stages before it instead of letting rows pile up:
+ * </p>
+ * <ol>
+ * <li>a reader thread decodes the file through a FileChannel and a reusable
+ *     direct buffer and cuts it into batches of raw records;</li>
+ * <li>one validator thread per core turns records into students and runs the
+ *     {@link Validator} checks;</li>
+ * <li>the calling thread writes each batch of valid rows as one JDBC batch
+ *     in one transaction.</li>
+ * </ol>
+ * <p>
+ * Bad rows are reported with their line number and never stop the run. If the
+ * database rejects a batch (e.g. a duplicate email), its rows are retried one
+ * at a time so only the offending rows fail.
+ * </p>
+ * <p>
+ * The file may start with a header naming the columns (name, age, email,
+ * course and optionally grade, in any order; other columns such as id are
+ * ignored). Without a header the columns must be in that order.
+ * An importer runs one import.
+ * </p>
+ */
+public class StudentImporter {
+    public static final int MAX_REPORTED_ERRORS = 1000; // Rejected rows kept for the result
+    
+    private static final String[] COLUMNS = {"name", "age", "email", "course", "grade"};
+    private static final int GRADE = 4;                  // Only optional column
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    // End-of-stream markers passed down the queues
+    private static final RawBatch END_OF_RECORDS = new RawBatch(null, List.of());
+    private static final ValidBatch END_OF_STUDENTS = new ValidBatch(List.of(), new long[0]);
+    
+    private final StudentService studentService;
+    private final int batchSize;         // Rows per queue batch = rows per JDBC batch/transaction
+    private final int validatorThreads;
+    private volatile boolean cancelled;
+    private volatile Exception fatal;    // Error that ended the import early (bad header, I/O, validator failure)
+    private boolean started;
+    
+    // Counters of the run
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final ConcurrentLinkedQueue<ImportError> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+    private long startNanos;
+    
+    public StudentImporter(StudentService studentService) {
+        this(studentService, Runtime.getRuntime().availableProcessors());
+    }
+    
+    public StudentImporter(StudentService studentService, int validatorThreads) {
+        if (validatorThreads < 1) throw new IllegalArgumentException("At least one validator thread is required");
+        this.studentService = studentService;
+        this.batchSize = studentService.getBatchSize(); // One batch must be one transaction (see write)
+        this.validatorThreads = validatorThreads;
+    }
+    
+    /**
+     * Imports every valid row of a CSV file. Blocks until the file has been
+     * read and written (or the import was cancelled).
+     * @param file CSV file (UTF-8)
+     * @param progress Receives progress every 200 ms and once at the end (on the writing thread); may be null
+     * @return Counts and the rejected rows
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the header lacks a required column
+     */
+    public ImportResult importCsv(Path file, Consumer<ImportProgress> progress) throws Exception {
+        synchronized (this) {
+            if (started) throw new IllegalStateException("An importer can only run once");
+            started = true;
+        }
+        startNanos = System.nanoTime();
+        
+        // Bounded queues: a full queue blocks the stage that feeds it
+        BlockingQueue<RawBatch> records = new ArrayBlockingQueue<>(validatorThreads * 2);
+        BlockingQueue<ValidBatch> students = new ArrayBlockingQueue<>(validatorThreads * 2);
+        
+        Thread reader = new Thread(() -> readFile(file, records), "csv-import-reader");
+        reader.setDaemon(true);
+        ExecutorService validators = Executors.newFixedThreadPool(validatorThreads, r -> {
+            Thread t = new Thread(r, "csv-import-validator");
+            t.setDaemon(true);
+            return t;
+        });
+        
+        try {
+            reader.start();
+            for (int i = 0; i < validatorThreads; i++) {
+                validators.execute(() -> validateBatches(records, students));
+            }
+            writeBatches(students, progress);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        } finally {
+            if (cancelled) {
+                reader.interrupt(); // Unblock stages stuck on a full queue
+            }
+            validators.shutdownNow();
+        }
+        
+        ImportProgress totals = snapshot();
+        if (progress != null) progress.accept(totals);
+        if (fatal != null) throw fatal;
+        
+        List<ImportError> sorted = new ArrayList<>(errors);
+        sorted.sort(Comparator.comparingLong(ImportError::getLineNumber));
+        return new ImportResult(totals, sorted, cancelled);
+    }
+    
+    /**
+     * Stops the import. Rows already committed stay in the database.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Gets the current counters.
+     * @return Progress so far
+     */
+    public ImportProgress snapshot() {
+        long elapsed = started ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) : 0;
+        return new ImportProgress(rowsRead.get(), rowsImported.get(), rowsFailed.get(), elapsed);
+    }
+    
+    // ---------- Stage 1: read ----------
+    
+    private void readFile(Path file, BlockingQueue<RawBatch> out) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE); // UTF-8 never yields more chars than bytes
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            BatchCollector collector = new BatchCollector(out);
+            CsvParser parser = new CsvParser();
+            
+            boolean eof = false;
+            while (!eof && !cancelled) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                decoder.decode(bytes, chars, eof);
+                if (eof) decoder.flush(chars);
+                bytes.compact(); // Keep a multi-byte character split across reads
+                chars.flip();
+                parser.feed(chars, collector);
+                chars.clear();
+            }
+            if (!cancelled) {
+                parser.finish(collector);
+                collector.flush();
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+        } catch (Exception e) {
+            fatal = e;
+        } finally {
+            for (int i = 0; i < validatorThreads; i++) {
+                try {
+                    out.put(END_OF_RECORDS); // One per validator
+                } catch (InterruptedException e) {
+                    return; // Import is being torn down
+                }
+            }
+        }
+    }
+    
+    /**
+     * Maps the header and groups records into batches for the validators.
+     */
+    private final class BatchCollector {
+        private final BlockingQueue<RawBatch> out;
+        private int[] columns;                 // Position of each of COLUMNS in a record (-1 = absent)
+        private List<CsvRecord> batch = new ArrayList<>();
+        
+        BatchCollector(BlockingQueue<RawBatch> out) {
+            this.out = out;
+        }
+        
+        void accept(CsvRecord record) throws InterruptedException {
+            if (columns == null) {
+                columns = mapHeader(record.fields);
+                if (columns != null) return;           // Header row - not data
+                columns = new int[] {0, 1, 2, 3, 4};   // No header - fixed column order
+            }
+            rowsRead.incrementAndGet();
+            batch.add(record);
+            if (batch.size() == batchSize) flush();
+        }
+        
+        void flush() throws InterruptedException {
+            if (batch.isEmpty()) return;
+            out.put(new RawBatch(columns, batch)); // Blocks while the validators are behind
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+    
+    /**
+     * Reads a header row.
+     * @return Column positions, or null if the row is data rather than a header
+     */
+    private static int[] mapHeader(String[] fields) {
+        int[] columns = new int[COLUMNS.length];
+        Arrays.fill(columns, -1);
+        boolean header = false;
+        for (int i = 0; i < fields.length; i++) {
+            String name = fields[i].trim().toLowerCase(Locale.ROOT);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equals(name)) {
+                    columns[c] = i;
+                    header = true;
+                }
+            }
+        }
+        if (!header) return null;
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (columns[c] < 0 && c != GRADE) {
+                throw new IllegalArgumentException("CSV header has no '" + COLUMNS[c] + "' column");
+            }
+        }
+        return columns;
+    }
+    
+    // ---------- Stage 2: validate (one per core) ----------
+    
+    private void validateBatches(BlockingQueue<RawBatch> in, BlockingQueue<ValidBatch> out) {
+        try {
+            while (true) {
+                RawBatch batch = in.take();
+                if (batch == END_OF_RECORDS) break;
+                if (cancelled) continue; // Drain so the reader can finish
+                
+                try {
+                    ValidBatch valid = validate(batch);
+                    if (valid != null) {
+                        out.put(valid); // Blocks while the writer is behind
+                    }
+                } catch (RuntimeException e) {
+                    fatal = e;        // A bug rather than a bad row - end the import with it
+                    cancelled = true; // ...but keep draining so the reader can finish
+                }
+            }
+        } catch (InterruptedException e) {
+            // Import is being torn down
+        } finally {
+            try {
+                out.put(END_OF_STUDENTS); // The writer waits for one per validator
+            } catch (InterruptedException e) {
+                // Import is being torn down
+            }
+        }
+    }
+    
+    /**
+     * Converts and validates a batch of records; bad rows are reported.
+     * @return The valid rows, or null if there are none
+     */
+    private ValidBatch validate(RawBatch batch) {
+        List<Student> students = new ArrayList<>(batch.records.size());
+        long[] lines = new long[batch.records.size()];
+        for (CsvRecord record : batch.records) {
+            try {
+                Student student = toStudent(record, batch.columns);
+                StudentService.validate(student);
+                lines[students.size()] = record.lineNumber;
+                students.add(student);
+            } catch (IllegalArgumentException e) {
+                fail(record.lineNumber, e.getMessage());
+            }
+        }
+        return students.isEmpty() ? null : new ValidBatch(students, lines);
+    }
+    
+    private static Student toStudent(CsvRecord record, int[] columns) {
+        if (record.error != null) throw new IllegalArgumentException(record.error);
+        String[] fields = record.fields;
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (c != GRADE && columns[c] >= fields.length) {
+                throw new IllegalArgumentException("Missing '" + COLUMNS[c] + "' (row has " + fields.length + " columns)");
+            }
+        }
+        
+        Student student = new Student();
+        student.setName(fields[columns[0]].trim());
+        String age = fields[columns[1]].trim();
+        try {
+            student.setAge(Integer.parseInt(age));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Age is not a number: '" + age + "'");
+        }
+        student.setEmail(fields[columns[2]].trim());
+        student.setCourse(fields[columns[3]].trim());
+        if (columns[GRADE] >= 0 && columns[GRADE] < fields.length) {
+            student.setGrade(Grade.parse(fields[columns[GRADE]])); // Grade is optional
+        }
+        return student;
+    }
+    
+    // ---------- Stage 3: write (calling thread) ----------
+    
+    private void writeBatches(BlockingQueue<ValidBatch> in, Consumer<ImportProgress> progress)
+            throws InterruptedException {
+        int finishedValidators = 0;
+        long lastReport = System.nanoTime();
+        while (finishedValidators < validatorThreads) {
+            ValidBatch batch = in.take();
+            if (batch == END_OF_STUDENTS) {
+                finishedValidators++;
+                continue;
+            }
+            if (cancelled) continue; // Drain so the validators can finish
+            
+            write(batch);
+            
+            long now = System.nanoTime();
+            if (progress != null && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                progress.accept(snapshot());
+                lastReport = now;
+            }
+        }
+    }
+    
+    /**
+     * Writes a batch in one transaction; if the database rejects it, retries
+     * row by row so the good rows still get in.
+     */
+    private void write(ValidBatch batch) {
+        try {
+            studentService.addValidatedPersons(batch.students);
+            rowsImported.addAndGet(batch.students.size());
+            return;
+        } catch (Exception e) {
+            // Batch was rolled back (it fits in one transaction) - find the rows at fault
+        }
+        for (int i = 0; i < batch.students.size(); i++) {
+            try {
+                studentService.addPerson(batch.students.get(i));
+                rowsImported.incrementAndGet();
+            } catch (Exception e) {
+                fail(batch.lines[i], e.getMessage());
+            }
+        }
+    }
+    
+    private void fail(long lineNumber, String message) {
+        rowsFailed.incrementAndGet();
+        if (reportedErrors.getAndIncrement() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportError(lineNumber, message));
+        }
+    }
+    
+    // ---------- CSV parsing ----------
+    
+    /**
+     * Incremental RFC 4180 parser: quoted fields may contain commas, doubled
+     * quotes and line breaks. Accepts LF and CRLF line endings and a UTF-8 BOM.
+     * Blank lines are skipped.
+     */
+    private static final class CsvParser {
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> fields = new ArrayList<>();
+        private boolean fieldStarted;   // Current field has content or an opening quote
+        private boolean inQuotes;
+        private boolean quotePending;   // Saw a quote inside a quoted field: closing or escaped?
+        private boolean afterCR;
+        private boolean firstChar = true;
+        private long line = 1;
+        private long recordLine = 1;    // Line where the current record started
+        
+        void feed(CharBuffer chars, BatchCollector out) throws InterruptedException {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (firstChar) {
+                    firstChar = false;
+                    if (c == '\uFEFF') continue; // Byte order mark
+                }
+                if (afterCR) {
+                    afterCR = false;
+                    if (c == '\n') continue;     // Second half of CRLF
+                }
+                
+                if (inQuotes) {
+                    if (quotePending) {
+                        quotePending = false;
+                        if (c == '"') {
+                            field.append('"');   // "" is an escaped quote
+                            continue;
+                        }
+                        inQuotes = false;        // Closing quote - handle c as unquoted below
+                    } else if (c == '"') {
+                        quotePending = true;
+                        continue;
+                    } else {
+                        if (c == '\n') line++;
+                        field.append(c);
+                        continue;
+                    }
+                }
+                
+                switch (c) {
+                    case ',':
+                        endField();
+                        break;
+                    case '\r':
+                        afterCR = true;
+                        endRecord(out, null);
+                        break;
+                    case '\n':
+                        endRecord(out, null);
+                        break;
+                    case '"':
+                        if (!fieldStarted) {
+                            inQuotes = true;
+                            fieldStarted = true;
+                            break;
+                        }
+                        field.append(c);         // Stray quote inside an unquoted field - keep it
+                        break;
+                    default:
+                        field.append(c);
+                        fieldStarted = true;
+                }
+            }
+        }
+        
+        void finish(BatchCollector out) throws InterruptedException {
+            if (inQuotes && !quotePending) {
+                endRecord(out, "Quoted field is never closed");
+            } else if (fieldStarted || !fields.isEmpty()) {
+                endRecord(out, null); // Last line without a line break
+            }
+        }
+        
+        private void endField() {
+            fields.add(field.toString());
+            field.setLength(0);
+            fieldStarted = false;
+        }
+        
+        private void endRecord(BatchCollector out, String error) throws InterruptedException {
+            endField();
+            boolean blank = fields.size() == 1 && fields.get(0).isEmpty();
+            if (!blank) {
+                out.accept(new CsvRecord(recordLine, fields.toArray(new String[0]), error));
+            }
+            fields.clear();
+            inQuotes = false;
+            quotePending = false;
+            line++;
+            recordLine = line;
+        }
+    }
+    
+    /**
+     * One parsed CSV row.
+     */
+    private static final class CsvRecord {
+        final long lineNumber;
+        final String[] fields;
+        final String error; // Set if the row could not be parsed
+        
+        CsvRecord(long lineNumber, String[] fields, String error) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+    
+    /**
+     * Records on their way to the validators, with the column mapping to read them by.
+     */
+    private static final class RawBatch {
+        final int[] columns;
+        final List<CsvRecord> records;
+        
+        RawBatch(int[] columns, List<CsvRecord> records) {
+            this.columns = columns;
+            this.records = records;
+        }
+    }
+    
+    /**
+     * Validated students on their way to the writer, with their line numbers.
+     */
+    private static final class ValidBatch {
+        final List<Student> students;
+        final long[] lines;
+        
+        ValidBatch(List<Student> students, long[] lines) {
+            this.students = students;
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package service;
+
+import model.Student;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram (3-gram) inverted index over student names and emails.
+ * <p>
+ * Every 3-character window of a lower-cased name or email maps to the sorted
+ * list of students containing it. A substring query is answered by
+ * intersecting the lists for the query's trigrams and checking the few
+ * remaining candidates, instead of scanning every row like LIKE '%x%'.
+ * Queries shorter than three characters fall back to a scan of the
+ * in-memory entries.
+ * </p>
+ * <p>
+ * Results are ranked (name prefix, then word prefix, then anywhere in the
+ * name, then email-only matches) and capped. Only the best resultCap matches
+ * are kept while scanning (a bounded heap), so common terms that match most
+ * of the roster are not sorted in full. Safe for concurrent use.
+ * </p>
+ */
+public class StudentSearchIndex {
+    private static final int GRAM = 3;
+
+    // Best match first: rank, then shorter name, then name
+    private static final Comparator<Match> BEST_FIRST = Comparator.<Match>comparingInt(m -> m.rank)
+        .thenComparingInt(m -> m.name.length())
+        .thenComparing(m -> m.name);
+
+    private final int resultCap; // Maximum results returned by search()
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Entries are stored in slots; a removed entry leaves a null slot behind
+    private Student[] students = new Student[1024];
+    private String[] names = new String[1024];   // Lower-cased name per slot
+    private String[] emails = new String[1024];  // Lower-cased email per slot
+    private int slotCount;                       // Slots used so far (live + removed)
+    private int liveCount;                       // Slots holding a student
+    private final Map<Integer, Integer> slotById = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>(); // Trigram -> ascending slots
+
+    public StudentSearchIndex(int resultCap) {
+        if (resultCap < 1) throw new IllegalArgumentException("Result cap must be at least 1");
+        this.resultCap = resultCap;
+    }
+
+    /**
+     * Adds a student, or replaces the entry with the same ID. Re-putting a
+     * student whose name and email did not change (the usual case for synced
+     * changes) reuses its slot; otherwise the old slot is left dead and
+     * reclaimed by the next compaction.
+     * @param student Student to index
+     */
+    public void put(Student student) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(student.getId());
+            if (slot != null && names[slot].equals(lower(student.getName()))
+                    && emails[slot].equals(lower(student.getEmail()))) {
+                students[slot] = student; // Same text - same trigrams, nothing else to update
+                return;
+            }
+            removeSlot(student.getId());
+            addSlot(student);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the student with the given ID (no-op if not indexed).
+     * @param id Student ID
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed students.
+     * @return Live entry count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getResultCap() {
+        return resultCap;
+    }
+
+    /**
+     * Number of slots in use, including removed entries not compacted yet.
+     * Stays below twice size() (or 1024 for a small index).
+     * @return Slot count
+     */
+    public int getSlotCount() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds students whose name or email contains the keyword (case-insensitive).
+     * @param keyword Substring to look for
+     * @return Up to resultCap matches, best first, with the total number of matches
+     */
+    public SearchResult search(String keyword) {
+        return search(keyword, resultCap);
+    }
+
+    /**
+     * Finds students whose name or email contains the keyword, with a
+     * different result cap (e.g. Integer.MAX_VALUE to get every match).
+     * @param keyword Substring to look for
+     * @param cap Maximum number of matches to return
+     * @return Up to cap matches, best first, with the total number of matches
+     */
+    public SearchResult search(String keyword, int cap) {
+        if (cap < 1) throw new IllegalArgumentException("Result cap must be at least 1");
+        String query = keyword.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) return SearchResult.complete(new ArrayList<>());
+
+        lock.readLock().lock();
+        try {
+            TopMatches top = new TopMatches(cap);
+            if (query.length() < GRAM) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    offerIfMatch(slot, query, top); // Too short for trigrams - scan
+                }
+            } else {
+                int[] candidates = candidates(query);
+                for (int slot : candidates) {
+                    offerIfMatch(slot, query, top); // Verify: trigrams can match out of order
+                }
+            }
+            return new SearchResult(top.bestFirst(), top.total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Internal helpers (callers hold the lock) ----------
+
+    private void addSlot(Student student) {
+        if (slotCount == students.length) {
+            int capacity = students.length * 2;
+            students = Arrays.copyOf(students, capacity);
+            names = Arrays.copyOf(names, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+        }
+        int slot = slotCount++;
+        String name = lower(student.getName());
+        String email = lower(student.getEmail());
+        students[slot] = student;
+        names[slot] = name;
+        emails[slot] = email;
+        slotById.put(student.getId(), slot);
+        liveCount++;
+
+        // Slots only grow, so appending keeps every posting list sorted
+        addGrams(name, slot);
+        addGrams(email, slot);
+    }
+
+    private void addGrams(String text, int slot) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            IntList list = postings.computeIfAbsent(gramKey(text, i), k -> new IntList());
+            if (list.size == 0 || list.values[list.size - 1] != slot) { // Skip repeats within this entry
+                list.add(slot);
+            }
+        }
+    }
+
+    private void removeSlot(int id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return;
+        students[slot] = null; // Posting entries for the slot are skipped until the next compaction
+        names[slot] = null;
+        emails[slot] = null;
+        liveCount--;
+    }
+
+    private void compactIfSparse() {
+        if (slotCount > 1024 && liveCount < slotCount / 2) {
+            compact(); // Most slots are dead - rebuild the postings
+        }
+    }
+
+    private void compact() {
+        Student[] live = new Student[liveCount];
+        int n = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (students[slot] != null) live[n++] = students[slot];
+        }
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, liveCount)) * 2);
+        students = new Student[capacity];
+        names = new String[capacity];
+        emails = new String[capacity];
+        slotCount = 0;
+        liveCount = 0;
+        slotById.clear();
+        postings.clear();
+        for (Student student : live) {
+            addSlot(student);
+        }
+    }
+
+    /**
+     * Intersects the posting lists of every trigram in the query, smallest first.
+     */
+    private int[] candidates(String query) {
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            IntList list = postings.get(gramKey(query, i));
+            if (list == null) return new int[0]; // Some trigram never occurs
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int resultSize = result.length;
+        for (int l = 1; l < lists.size() && resultSize > 0; l++) {
+            IntList other = lists.get(l);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < resultSize; i++) {
+                int slot = result[i];
+                while (j < other.size && other.values[j] < slot) j++;
+                if (j == other.size) break;
+                if (other.values[j] == slot) result[kept++] = slot;
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private void offerIfMatch(int slot, String query, TopMatches top) {
+        Student student = students[slot];
+        if (student == null) return; // Removed entry
+
+        String name = names[slot];
+        int rank;
+        int at = name.indexOf(query);
+        if (at == 0) {
+            rank = 0;                                     // Name starts with the query
+        } else if (at > 0 && name.charAt(at - 1) == ' ') {
+            rank = 1;                                     // A word in the name starts with it
+        } else if (at > 0) {
+            rank = 2;                                     // Somewhere inside the name
+        } else if (emails[slot].contains(query)) {
+            rank = 3;                                     // Only the email matches
+        } else {
+            return;
+        }
+        top.offer(student, name, rank);
+    }
+
+    private static long gramKey(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+             | ((long) text.charAt(start + 1) << 16)
+             | text.charAt(start + 2);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable list of primitive ints (avoids boxing every posting).
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * The best matches seen so far, in a heap of at most cap entries with the
+     * worst kept match on top, plus a count of every match offered.
+     */
+    private static final class TopMatches {
+        final int cap;
+        final PriorityQueue<Match> heap;
+        int total;
+
+        TopMatches(int cap) {
+            this.cap = cap;
+            this.heap = new PriorityQueue<>(Math.min(cap, 1024) + 1, BEST_FIRST.reversed());
+        }
+
+        void offer(Student student, String name, int rank) {
+            total++;
+            if (heap.size() == cap) {
+                Match worst = heap.peek();
+                if (compare(rank, name, worst) >= 0) return; // No better than the worst kept - skip without allocating
+                heap.poll();
+            }
+            heap.add(new Match(student, name, rank));
+        }
+
+        List<Student> bestFirst() {
+            List<Match> kept = new ArrayList<>(heap);
+            kept.sort(BEST_FIRST);
+            List<Student> results = new ArrayList<>(kept.size());
+            for (Match match : kept) {
+                results.add(match.student);
+            }
+            return results;
+        }
+
+        // Same order as BEST_FIRST, without building a Match for the candidate
+        private static int compare(int rank, String name, Match other) {
+            if (rank != other.rank) return Integer.compare(rank, other.rank);
+            if (name.length() != other.name.length()) return Integer.compare(name.length(), other.name.length());
+            return name.compareTo(other.name);
+        }
+    }
+
+    /**
+     * A candidate result with its ranking data.
+     */
+    private static final class Match {
+        final Student student;
+        final String name;
+        final int rank;
+
+        Match(Student student, String name, int rank) {
+            this.student = student;
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
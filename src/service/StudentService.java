@@ -1,56 +1,116 @@
 package service;
 
 import model.Student;
+import model.StudentColumnStore;
+import db.ChangeSet;
+import db.QueryHandle;
+import db.RosterSnapshot;
+import db.MeteredStudentDAO;
 import db.StudentDAO;
+import db.TableState;
+import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer implementation for Student operations.
  * Contains business logic and validation.
+ * <p>
+ * The *Async methods run the same operations on a background executor and
+ * return a CompletableFuture, so UI code never blocks the Event Dispatch Thread.
+ * </p>
+ * <p>
+ * The student cache and search index follow changes made by other app
+ * instances through the shared {@link InvalidationBus}, once
+ * {@link #startChangePolling()} has been called.
+ * </p>
  */
 public class StudentService implements PersonService<Student> {
     
+    public static final int MAX_PAGE_SIZE = 5000; // Upper bound on rows per page request
+    
+    // Shared by all service instances; virtual threads where the JVM supports them
+    private static final ExecutorService ASYNC_EXECUTOR =
+        ServiceExecutors.newBlockingCallExecutor("student-service");
+    
+    private static final int DEFAULT_SEARCH_RESULT_CAP = 500; // Max results from the in-memory index
+    
+    // Roster snapshot for instant startup (-Dsnapshot.path=... to move it, empty to disable)
+    private static final String SNAPSHOT_PATH = System.getProperty("snapshot.path",
+        Paths.get(System.getProperty("user.home"), ".student-management", "students.snap").toString());
+    private static final long SNAPSHOT_MAX_AGE_MILLIS = Long.getLong("snapshot.maxAgeHours", 72L) * 3_600_000L;
+    private static final Object SNAPSHOT_LOCK = new Object(); // One writer at a time
+    
     private final StudentDAO studentDAO; // Data access object
     
+    // Read-through cache for getPerson (size/TTL can be set with -Dcache.students.*)
+    private final EntityCache<Student> studentCache = new EntityCache<>(
+        Integer.getInteger("cache.students.maxSize", 10_000),
+        Long.getLong("cache.students.ttlMillis", 300_000L),
+        Student::new);
+    
+    // In-memory name/email search index (null until buildSearchIndex() finishes)
+    private final Object indexLock = new Object();
+    private volatile StudentSearchIndex searchIndex;
+    private List<Consumer<StudentSearchIndex>> pendingIndexChanges; // Changes made during a rebuild
+    private int searchResultCap = DEFAULT_SEARCH_RESULT_CAP;
+    
+    // Changes made by other app instances
+    private final InvalidationBus invalidationBus;
+    private final Consumer<ChangeSet> remoteChangeHandler = this::applyRemoteChanges;
+    private final List<Consumer<ChangeSet>> changeListeners = new CopyOnWriteArrayList<>();
+    
     public StudentService() {
-        this.studentDAO = new StudentDAO(); // Initialize DAO
+        this(InvalidationBus.shared());
+    }
+    
+    public StudentService(InvalidationBus invalidationBus) {
+        this.studentDAO = new MeteredStudentDAO(); // Records per-call metrics
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(remoteChangeHandler);
     }
     
     @Override
     public void addPerson(Student student) throws Exception {
-        // Validate all student fields before adding to database
-        if (!Validator.isValidName(student.getName())) {
-            throw new IllegalArgumentException("Name must be at least 2 characters");
-        }
-        if (!Validator.isValidAge(student.getAge())) {
-            throw new IllegalArgumentException("Age must be between 16 and 100");
-        }
-        if (!Validator.isValidEmail(student.getEmail())) {
-            throw new IllegalArgumentException("Invalid email format");
-        }
-        if (!Validator.isValidCourse(student.getCourse())) {
-            throw new IllegalArgumentException("Course is required");
-        }
-        if (!Validator.isValidGrade(student.getGrade())) {
-            throw new IllegalArgumentException("Invalid grade format. Use A+, A, A-, B+, etc.");
-        }
-        
+        validate(student); // Validate all student fields before adding to database
         studentDAO.create(student); // Save to database if validation passes
+        studentCache.put(student.getId(), student); // Likely to be viewed right away
+        updateSearchIndex(index -> index.put(student));
     }
     
     @Override
     public Student getPerson(int id) throws Exception {
-        return studentDAO.read(id); // Get student by ID
+        Student cached = studentCache.get(id);
+        if (cached != null) return cached; // Served from memory
+        
+        long stamp = studentCache.loadStamp();
+        Student student = studentDAO.read(id); // Get student by ID
+        studentCache.putLoaded(id, student, stamp); // Skipped if a write raced with this read
+        return student;
     }
     
     @Override
     public void updatePerson(Student student) throws Exception {
         studentDAO.update(student); // Update existing student
+        studentCache.put(student.getId(), student);
+        updateSearchIndex(index -> index.put(student));
     }
     
     @Override
     public void deletePerson(int id) throws Exception {
         studentDAO.delete(id); // Delete student by ID
+        studentCache.invalidate(id);
+        updateSearchIndex(index -> index.remove(id));
     }
     
     @Override
@@ -58,18 +118,310 @@ public class StudentService implements PersonService<Student> {
         return studentDAO.findAll(); // Get all students
     }
     
+    @Override
+    public List<Student> getPersonsPage(int afterId, int limit) throws Exception {
+        checkPageSize(limit);
+        long stamp = studentCache.loadStamp();
+        List<Student> page = studentDAO.findPage(afterId, limit); // Seek past afterId using the primary key
+        for (Student student : page) {
+            studentCache.putLoaded(student.getId(), student, stamp); // Rows on screen are the ones opened next
+        }
+        return page;
+    }
+    
     // ---------- Additional Business Methods ----------
     
+    /**
+     * Count all students.
+     * @return Total number of students
+     */
+    public int countStudents() throws Exception {
+        return studentDAO.count();
+    }
+    
+    /**
+     * Get the row count, highest ID and database time in one round trip.
+     * @return Current table state (its server time starts delta refreshes)
+     */
+    public TableState getTableState() throws Exception {
+        return studentDAO.getTableState();
+    }
+    
+    /**
+     * Get students inserted, updated or deleted since a watermark. Used to
+     * catch up from a point the invalidation bus does not cover, such as a
+     * roster snapshot saved by an earlier session.
+     * @param watermark Server time from the last TableState or ChangeSet
+     * @return Changes plus the next watermark
+     */
+    public ChangeSet getChangesSince(Timestamp watermark) throws Exception {
+        if (watermark == null) {
+            throw new IllegalArgumentException("Watermark is required");
+        }
+        return studentDAO.findChangedSince(watermark);
+    }
+    
+    /**
+     * Get the ID of the student at a position in ID order. Used to find where
+     * a page starts without reading the pages before it.
+     * @param offset Zero-based row position
+     * @return The ID at that position, or -1 if out of range
+     */
+    public int getStudentIdAtOffset(int offset) throws Exception {
+        return studentDAO.findIdAtOffset(offset);
+    }
+    
+    /**
+     * Get one page of students sorted by name.
+     * @param afterName Name of the last student on the previous page (null for the first page)
+     * @param afterId ID of the last student on the previous page
+     * @param limit Maximum number of students to return
+     * @return Up to limit students ordered by name, then ID
+     */
+    public List<Student> getStudentsPageByName(String afterName, int afterId, int limit) throws Exception {
+        checkPageSize(limit);
+        return studentDAO.findPageByName(afterName, afterId, limit);
+    }
+    
+    /**
+     * Get one page of students sorted by course.
+     * @param afterCourse Course of the last student on the previous page (null for the first page)
+     * @param afterId ID of the last student on the previous page
+     * @param limit Maximum number of students to return
+     * @return Up to limit students ordered by course, then ID
+     */
+    public List<Student> getStudentsPageByCourse(String afterCourse, int afterId, int limit) throws Exception {
+        checkPageSize(limit);
+        return studentDAO.findPageByCourse(afterCourse, afterId, limit);
+    }
+    
+    /**
+     * Add many students in batches. The whole list is validated first,
+     * so nothing is written if any student is invalid.
+     * Generated IDs are set on each student.
+     * @param students Students to add
+     * @throws IllegalArgumentException naming the first invalid student
+     */
+    public void addPersons(List<Student> students) throws Exception {
+        for (int i = 0; i < students.size(); i++) {
+            try {
+                validate(students.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Student #" + (i + 1) + " (" + students.get(i).getName() + "): " + e.getMessage(), e);
+            }
+        }
+        studentDAO.createAll(students); // Written in chunks, one transaction per chunk
+        updateSearchIndex(index -> students.forEach(index::put));
+    }
+    
+    /**
+     * Add students that were already validated (used by {@link StudentImporter}).
+     * @param students Valid students, at most {@link #getBatchSize()} so they commit as one transaction
+     */
+    void addValidatedPersons(List<Student> students) throws Exception {
+        studentDAO.createAll(students);
+        updateSearchIndex(index -> students.forEach(index::put));
+    }
+    
+    /**
+     * Rows written per JDBC batch and transaction by the bulk methods.
+     * @return DAO batch size
+     */
+    int getBatchSize() {
+        return studentDAO.getBatchSize();
+    }
+    
     /**
      * Search students by name keyword.
+     * Uses the in-memory search index (which also matches emails) once it
+     * has been built, otherwise queries the database.
      * @param keyword Search term (partial name)
-     * @return List of matching students, or all if keyword is empty
+     * @return Matching students (all students if keyword is empty), with the total match count
      */
-    public List<Student> searchStudents(String keyword) throws Exception {
+    public SearchResult searchStudents(String keyword) throws Exception {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllPersons(); // Return all if no keyword
+            return SearchResult.complete(getAllPersons()); // Return all if no keyword
+        }
+        StudentSearchIndex index = searchIndex;
+        if (index != null) {
+            return index.search(keyword); // Ranked, capped, no database round trip
+        }
+        return SearchResult.complete(studentDAO.searchByName(keyword)); // Search by name
+    }
+    
+    /**
+     * Search students like {@link #searchStudents}, but return every match
+     * rather than the index's capped best matches (for exporting them).
+     * @param keyword Search term
+     * @return All matching students, best match first when the index is used
+     */
+    public List<Student> searchAllStudents(String keyword) throws Exception {
+        StudentSearchIndex index = searchIndex;
+        if (index != null && keyword != null && !keyword.trim().isEmpty()) {
+            return index.search(keyword, Integer.MAX_VALUE).getStudents();
+        }
+        return searchStudents(keyword).getStudents(); // Database results are not capped
+    }
+    
+    /**
+     * Get statistics for the student entity cache used by getPerson().
+     * @return Hit rate, size and eviction counters
+     */
+    public CacheStats getCacheStats() {
+        return studentCache.getStats();
+    }
+    
+    /**
+     * Build (or rebuild) the in-memory search index by streaming every student
+     * from the database. Searches keep using the database until it is ready.
+     * Changes made while the index is being built are applied before it goes live.
+     */
+    public void buildSearchIndex() throws Exception {
+        StudentSearchIndex fresh = new StudentSearchIndex(searchResultCap);
+        synchronized (indexLock) {
+            pendingIndexChanges = new ArrayList<>();
+        }
+        try (Stream<Student> students = studentDAO.stream()) {
+            students.forEach(fresh::put); // Constant memory apart from the index itself
+        } catch (Exception e) {
+            synchronized (indexLock) {
+                pendingIndexChanges = null;
+            }
+            throw e;
+        }
+        synchronized (indexLock) {
+            for (Consumer<StudentSearchIndex> change : pendingIndexChanges) {
+                change.accept(fresh); // put/remove are idempotent, so replaying is safe
+            }
+            pendingIndexChanges = null;
+            searchIndex = fresh;
+        }
+    }
+    
+    /**
+     * Check whether searches are answered from the in-memory index.
+     * @return true once buildSearchIndex() has completed
+     */
+    public boolean isSearchIndexReady() {
+        return searchIndex != null;
+    }
+    
+    /**
+     * Load every student into a compact column store, streamed from the
+     * database. The store is a detached copy for reports and bulk scans;
+     * it is not updated by later changes.
+     * @return Filled column store
+     */
+    public StudentColumnStore loadColumnStore() throws Exception {
+        try (Stream<Student> students = studentDAO.stream()) {
+            return StudentColumnStore.of(students.iterator());
+        }
+    }
+    
+    /**
+     * Set the maximum number of results returned by indexed searches.
+     * Takes effect on the next buildSearchIndex().
+     * @param searchResultCap Maximum results, at least 1
+     */
+    public void setSearchResultCap(int searchResultCap) {
+        if (searchResultCap < 1) {
+            throw new IllegalArgumentException("Search result cap must be at least 1");
+        }
+        this.searchResultCap = searchResultCap;
+    }
+    
+    /**
+     * Narrow an earlier search result to a longer keyword without going back
+     * to the database. Valid when the new keyword contains the old one, since
+     * every match for the new keyword was then also a match for the old one.
+     * Matching is case-insensitive like the database collation.
+     * @param students Results of the earlier search
+     * @param keyword New, more specific keyword
+     * @return Students whose name contains the keyword, in the original order
+     */
+    public static List<Student> filterByName(List<Student> students, String keyword) {
+        String needle = keyword.trim().toLowerCase(Locale.ROOT);
+        List<Student> matches = new ArrayList<>();
+        for (Student student : students) {
+            String name = student.getName();
+            if (name != null && name.toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(student);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Stream every student without building a list (for exports and reports).
+     * The stream holds a database connection until closed; use try-with-resources.
+     * @return Lazily populated stream of students in ID order
+     */
+    public Stream<Student> streamStudents() throws Exception {
+        return studentDAO.stream();
+    }
+    
+    /**
+     * Export every student, streamed from the database cursor.
+     * @param file Destination file
+     * @param format CSV or JSON Lines
+     * @param gzip Whether to gzip-compress the file
+     * @return Number of students written
+     */
+    public long exportAll(Path file, StudentExporter.Format format, boolean gzip) throws Exception {
+        return exportAll(new StudentExporter(format, gzip), file);
+    }
+    
+    private long exportAll(StudentExporter exporter, Path file) throws Exception {
+        try (Stream<Student> students = studentDAO.stream()) {
+            return exporter.export(students.iterator(), file);
+        }
+    }
+    
+    /**
+     * Open the saved roster snapshot, if there is a usable one.
+     * Only maps the file, so it is fast enough to call on the Event Dispatch Thread.
+     * @return The snapshot, or null if there is none, it is unreadable, or it is
+     *         so old that a full load is cheaper than catching up
+     */
+    public RosterSnapshot openSnapshot() {
+        if (SNAPSHOT_PATH.isEmpty()) return null;
+        try {
+            Path file = RosterSnapshot.latestGeneration(Paths.get(SNAPSHOT_PATH));
+            if (file == null) return null;
+            // Check the age from the header first, so a stale file is never mapped
+            Timestamp watermark = RosterSnapshot.readWatermark(file);
+            if (System.currentTimeMillis() - watermark.getTime() > SNAPSHOT_MAX_AGE_MILLIS) {
+                return null;
+            }
+            return RosterSnapshot.open(file);
+        } catch (IOException e) {
+            System.err.println("⚠️ Ignoring roster snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Save the whole roster as a snapshot for the next startup.
+     * Rows are streamed from the database, stamped with the database time
+     * taken before reading, so a delta sync from that time catches up.
+     * Tombstones older than the oldest usable snapshot are purged first.
+     * @return Number of students saved (0 if snapshots are disabled)
+     */
+    public int writeSnapshot() throws Exception {
+        if (SNAPSHOT_PATH.isEmpty()) return 0;
+        synchronized (SNAPSHOT_LOCK) {
+            studentDAO.purgeTombstones(SNAPSHOT_MAX_AGE_MILLIS); // No sync starts further back than that
+            Path base = Paths.get(SNAPSHOT_PATH);
+            Path file = RosterSnapshot.nextGeneration(base); // A new file - the old one may still be mapped
+            TableState state = studentDAO.getTableState();
+            int rows;
+            try (Stream<Student> students = studentDAO.stream()) {
+                rows = RosterSnapshot.write(students.iterator(), state.getServerTime(), file);
+            }
+            RosterSnapshot.deleteOlderGenerations(base, file);
+            return rows;
         }
-        return studentDAO.searchByName(keyword); // Search by name
     }
     
     /**
@@ -79,4 +431,292 @@ public class StudentService implements PersonService<Student> {
     public List<String> getAllCourses() throws Exception {
         return studentDAO.getAllCourses();
     }
+    
+    // ---------- Asynchronous Variants ----------
+    
+    /**
+     * Run any blocking call on the service's background executor.
+     * @param task Work to run (typically a database call)
+     * @return Future completed with the task's result or exception
+     */
+    public <R> CompletableFuture<R> callAsync(Callable<R> task) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        ASYNC_EXECUTOR.execute(() -> {
+            if (future.isCancelled()) return; // Cancelled before it started - skip the query
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Validate and add a student in the background.
+     * @return Future completed with the saved student (ID assigned)
+     */
+    public CompletableFuture<Student> addPersonAsync(Student student) {
+        return callAsync(() -> {
+            addPerson(student);
+            return student;
+        });
+    }
+    
+    /**
+     * Load a student by ID in the background.
+     * @return Future completed with the student, or null if not found
+     */
+    public CompletableFuture<Student> getPersonAsync(int id) {
+        return callAsync(() -> getPerson(id));
+    }
+    
+    /**
+     * Update a student in the background.
+     * @return Future completed with the updated student
+     */
+    public CompletableFuture<Student> updatePersonAsync(Student student) {
+        return callAsync(() -> {
+            updatePerson(student);
+            return student;
+        });
+    }
+    
+    /**
+     * Delete a student in the background.
+     * @return Future completed with the deleted student's ID
+     */
+    public CompletableFuture<Integer> deletePersonAsync(int id) {
+        return callAsync(() -> {
+            deletePerson(id);
+            return id;
+        });
+    }
+    
+    /**
+     * Search students by name in the background.
+     * @return Future completed with the matching students and the total match count
+     */
+    public CompletableFuture<SearchResult> searchStudentsAsync(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return callAsync(() -> SearchResult.complete(getAllPersons()));
+        }
+        StudentSearchIndex index = searchIndex;
+        if (index != null) {
+            return callAsync(() -> index.search(keyword)); // Milliseconds on a large roster - keep it off the EDT
+        }
+        
+        // Cancelling the future also aborts the query on the server
+        QueryHandle handle = new QueryHandle();
+        CompletableFuture<SearchResult> future =
+            callAsync(() -> SearchResult.complete(studentDAO.searchByName(keyword, handle)));
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                ASYNC_EXECUTOR.execute(handle::cancel); // Statement.cancel() talks to the server - keep it off the caller
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Build the search index in the background.
+     * @return Future completed when the index is live
+     */
+    public CompletableFuture<Void> buildSearchIndexAsync() {
+        return callAsync(() -> {
+            buildSearchIndex();
+            return null;
+        });
+    }
+    
+    /**
+     * Import students from a CSV file in the background.
+     * Cancelling the future stops the import (rows already committed stay).
+     * @param file CSV file
+     * @param progress Receives progress updates on a background thread; may be null
+     * @return Future completed with the import result
+     */
+    public CompletableFuture<ImportResult> importCsvAsync(Path file, Consumer<ImportProgress> progress) {
+        StudentImporter importer = new StudentImporter(this);
+        CompletableFuture<ImportResult> future = callAsync(() -> importer.importCsv(file, progress));
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) importer.cancel();
+        });
+        return future;
+    }
+    
+    /**
+     * Export students in the background. Cancelling the future stops the
+     * export and leaves no file behind.
+     * @param students Students to export (e.g. search results), or null for the whole table
+     * @param file Destination file
+     * @param format CSV or JSON Lines
+     * @param gzip Whether to gzip-compress the file
+     * @return Future completed with the number of students written
+     */
+    public CompletableFuture<Long> exportAsync(List<Student> students, Path file,
+                                               StudentExporter.Format format, boolean gzip) {
+        StudentExporter exporter = new StudentExporter(format, gzip);
+        return exportAsync(exporter, () -> students == null
+            ? exportAll(exporter, file)
+            : exporter.export(students.iterator(), file));
+    }
+    
+    /**
+     * Export every student matching a search in the background, including
+     * the matches left out of the capped results shown on screen.
+     * @param keyword Search term
+     * @param file Destination file
+     * @param format CSV or JSON Lines
+     * @param gzip Whether to gzip-compress the file
+     * @return Future completed with the number of students written
+     */
+    public CompletableFuture<Long> exportSearchAsync(String keyword, Path file,
+                                                     StudentExporter.Format format, boolean gzip) {
+        StudentExporter exporter = new StudentExporter(format, gzip);
+        return exportAsync(exporter, () -> exporter.export(searchAllStudents(keyword).iterator(), file));
+    }
+    
+    private CompletableFuture<Long> exportAsync(StudentExporter exporter, Callable<Long> export) {
+        CompletableFuture<Long> future = callAsync(export);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) exporter.cancel();
+        });
+        return future;
+    }
+    
+    /**
+     * Save the roster snapshot in the background.
+     * @return Future completed with the number of students saved
+     */
+    public CompletableFuture<Integer> writeSnapshotAsync() {
+        return callAsync(this::writeSnapshot);
+    }
+    
+    /**
+     * Count students in the background.
+     * @return Future completed with the total number of students
+     */
+    public CompletableFuture<Integer> countStudentsAsync() {
+        return callAsync(this::countStudents);
+    }
+    
+    /**
+     * Read the table state in the background.
+     * @return Future completed with the row count, highest ID and server time
+     */
+    public CompletableFuture<TableState> getTableStateAsync() {
+        return callAsync(this::getTableState);
+    }
+    
+    /**
+     * Read changes since a watermark in the background.
+     * @return Future completed with the changes and the next watermark
+     */
+    public CompletableFuture<ChangeSet> getChangesSinceAsync(Timestamp watermark) {
+        return callAsync(() -> getChangesSince(watermark));
+    }
+    
+    /**
+     * Check for changes made elsewhere now instead of waiting for the next poll.
+     * @return Future completed once the changes were applied and listeners notified
+     */
+    public CompletableFuture<Void> syncNowAsync() {
+        return invalidationBus.pollNow();
+    }
+    
+    // ---------- Cross-instance coherence ----------
+    
+    /**
+     * Start polling the database for changes made by any app instance. Until
+     * then the cache and search index only see this service's own writes.
+     */
+    public void startChangePolling() {
+        invalidationBus.start();
+    }
+    
+    /**
+     * Register a listener for changes made by any app instance (including this one).
+     * Called on the invalidation bus thread after this service's caches were updated.
+     * @param listener Receives each change set
+     */
+    public void addChangeListener(Consumer<ChangeSet> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Get staleness and invalidation latency statistics of the cache coherence.
+     * @return Snapshot of the invalidation bus counters
+     */
+    public CoherenceStats getCoherenceStats() {
+        return invalidationBus.getStats();
+    }
+    
+    /**
+     * Stop following remote changes (for services created and dropped at runtime).
+     */
+    public void close() {
+        invalidationBus.unsubscribe(remoteChangeHandler);
+        changeListeners.clear();
+    }
+    
+    /**
+     * Evicts changed and deleted students from the cache (the next read
+     * reloads them) and brings the search index up to date.
+     */
+    private void applyRemoteChanges(ChangeSet changes) {
+        for (Student student : changes.getChanged()) {
+            studentCache.invalidate(student.getId()); // Evict rather than refresh: our own newer write may be cached
+            updateSearchIndex(index -> index.put(student));
+        }
+        for (int id : changes.getDeletedIds()) {
+            studentCache.invalidate(id);
+            updateSearchIndex(index -> index.remove(id));
+        }
+        for (Consumer<ChangeSet> listener : changeListeners) {
+            listener.accept(changes);
+        }
+    }
+    
+    /**
+     * Applies a change to the live search index, and records it for replay
+     * if a rebuild is in progress.
+     */
+    private void updateSearchIndex(Consumer<StudentSearchIndex> change) {
+        synchronized (indexLock) {
+            if (pendingIndexChanges != null) pendingIndexChanges.add(change);
+            if (searchIndex != null) change.accept(searchIndex);
+        }
+    }
+    
+    /**
+     * Rejects page sizes that are not positive or too large to be a page.
+     * @param limit Requested page size
+     */
+    private void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    /**
+     * Checks every student field against the validation rules.
+     * @param student Student to validate
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    static void validate(Student student) {
+        if (!Validator.isValidName(student.getName())) {
+            throw new IllegalArgumentException("Name must be at least 2 characters");
+        }
+        if (!Validator.isValidAge(student.getAge())) {
+            throw new IllegalArgumentException("Age must be between 16 and 100");
+        }
+        if (!Validator.isValidEmail(student.getEmail())) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        if (!Validator.isValidCourse(student.getCourse())) {
+            throw new IllegalArgumentException("Course is required");
+        }
+        // Grades are typed (model.Grade), so any non-null grade is valid
+    }
 }
\ No newline at end of file
@@ -12,10 +12,6 @@ public class Validator {
         "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
     );
     
-    // Array of valid grade values
-    private static final String[] VALID_GRADES = {"A+", "A", "A-", "B+", "B", "B-", 
-                                                  "C+", "C", "C-", "D+", "D", "D-", "F"};
-    
     /**
      * Validates email format.
      * @param email Email address to validate
@@ -34,22 +30,6 @@ public class Validator {
         return age >= 16 && age <= 100;
     }
     
-    /**
-     * Validates grade format (standard letter grades).
-     * @param grade Grade to validate (e.g., "A+", "B-")
-     * @return true if grade is valid, also true if grade is empty/null (optional field)
-     */
-    public static boolean isValidGrade(String grade) {
-        if (grade == null || grade.trim().isEmpty()) return true; // Grade is optional
-        
-        // Check against valid grade list (case-insensitive)
-        String trimmedGrade = grade.trim().toUpperCase();
-        for (String valid : VALID_GRADES) {
-            if (valid.equals(trimmedGrade)) return true;
-        }
-        return false;
-    }
-    
     /**
      * Validates student name (minimum 2 characters).
      * @param name Name to validate
@@ -22,6 +22,12 @@ public class CustomButton extends JButton {
     private Color pressedColor;    // Mouse pressed state color
     private int cornerRadius = 8;  // Radius for rounded corners
     
+    // Visual states of the background, each rendered once per size and then copied
+    private static final int NORMAL = 0, HOVER = 1, PRESSED = 2;
+    private static final Color SHADOW = new Color(0, 0, 0, 20); // Semi-transparent black
+    private static final PaintMetrics PAINT_METRICS = new PaintMetrics("buttons"); // Shared by all buttons
+    private final StateImageCache background = new StateImageCache(3, this::renderBackground, PAINT_METRICS);
+    
     /**
      * Creates a primary styled button with default settings.
      * @param text The button display text
@@ -79,6 +85,7 @@ public class CustomButton extends JButton {
                 pressedColor = new Color(34, 112, 165); // Darker pressed
                 break;
         }
+        background.invalidate(); // Colors changed - re-render the states
     }
     
     /**
@@ -127,36 +134,54 @@ public class CustomButton extends JButton {
     
     /**
      * Custom painting for rounded rectangle and dynamic colors.
+     * The background comes from the image cache; text and icon are painted live.
      * @param g The Graphics context for painting
      */
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        // Determine current color based on button state
-        Color currentColor = primaryColor;
+        // Determine current state
         boolean hovered = getModel().isRollover(); // Check if mouse is over button
         boolean pressed = getModel().isPressed();  // Check if button is pressed
+        int state = pressed ? PRESSED : hovered ? HOVER : NORMAL;
         
-        if (pressed) {
-            currentColor = pressedColor;
-        } else if (hovered) {
-            currentColor = hoverColor;
-        }
+        background.paint(g, this, state);
+        
+        // Paint text and icon on top of background
+        super.paintComponent(g);
+    }
+    
+    /**
+     * Draws the rounded background of one state (into a cached image).
+     */
+    private void renderBackground(Graphics2D g2, int state, int width, int height) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
         // Draw rounded rectangle background
-        g2.setColor(currentColor);
-        g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), cornerRadius, cornerRadius));
+        g2.setColor(state == PRESSED ? pressedColor : state == HOVER ? hoverColor : primaryColor);
+        g2.fill(new RoundRectangle2D.Float(0, 0, width, height, cornerRadius, cornerRadius));
         
         // Add subtle shadow for depth (except when pressed)
-        if (!pressed) {
-            g2.setColor(new Color(0, 0, 0, 20)); // Semi-transparent black
-            g2.fill(new RoundRectangle2D.Float(0, 1, getWidth(), getHeight(), cornerRadius, cornerRadius));
+        if (state != PRESSED) {
+            g2.setColor(SHADOW);
+            g2.fill(new RoundRectangle2D.Float(0, 1, width, height, cornerRadius, cornerRadius));
         }
-        
-        // Paint text and icon on top of background
-        super.paintComponent(g);
+    }
+    
+    /**
+     * Re-renders the cached states when the look and feel changes.
+     */
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        if (background != null) background.invalidate(); // null while the superclass constructor runs
+    }
+    
+    /**
+     * Gets paint counts and times for all CustomButtons.
+     * @return Snapshot of button paint statistics
+     */
+    public static PaintStats getPaintStats() {
+        return PAINT_METRICS.getStats();
     }
     
     /**
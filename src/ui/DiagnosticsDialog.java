@@ -0,0 +1,164 @@
+package ui;
+
+import db.DatabaseConnection;
+import db.SlowQueryLog;
+import metrics.Metrics;
+import metrics.MetricsDumper;
+import metrics.OperationStats;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-modal window showing the per-operation metrics (latency percentiles,
+ * rows, errors) next to the pool, cache and paint statistics. Refreshes
+ * once a second while it is open; the timer stops when it is hidden.
+ */
+@SuppressWarnings("serial")
+public class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final String[] COLUMNS =
+        {"Operation", "Count", "Rows", "Errors", "Mean µs", "p50 µs", "p90 µs", "p99 µs", "p99.9 µs", "Max µs"};
+
+    private final StudentPanel studentPanel;
+    private final OperationTableModel tableModel = new OperationTableModel();
+    private final JTextArea summary = new JTextArea(8, 80);
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    public DiagnosticsDialog(Frame owner, StudentPanel studentPanel) {
+        super(owner, "Diagnostics", false);
+        this.studentPanel = studentPanel;
+        setSize(1000, 520);
+        setLocationRelativeTo(owner);
+
+        JTable table = new JTable(tableModel);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        table.setAutoCreateRowSorter(true);
+        DefaultTableCellRenderer right = new DefaultTableCellRenderer();
+        right.setHorizontalAlignment(SwingConstants.RIGHT);
+        for (int column = 1; column < COLUMNS.length; column++) {
+            table.getColumnModel().getColumn(column).setCellRenderer(right);
+        }
+        table.getColumnModel().getColumn(0).setPreferredWidth(220);
+
+        summary.setEditable(false);
+        summary.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JButton dumpButton = new JButton("Write Dump");
+        dumpButton.addActionListener(e -> writeDump());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(dumpButton);
+        buttons.add(closeButton);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(new JScrollPane(summary), BorderLayout.CENTER);
+        bottom.add(buttons, BorderLayout.SOUTH);
+
+        setLayout(new BorderLayout(5, 5));
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        if (visible) {
+            refresh(); // Show current numbers right away, not after the first tick
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+        super.setVisible(visible);
+    }
+
+    private void refresh() {
+        tableModel.setRows(Metrics.snapshot());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Pool:        " + DatabaseConnection.getPool().getStats());
+        lines.add("Cache:       " + studentPanel.getStudentService().getCacheStats());
+        lines.add("Coherence:   " + studentPanel.getStudentService().getCoherenceStats());
+        lines.add("Paint:       " + studentPanel.getTablePaintStats());
+        lines.add("             " + studentPanel.getHeaderPaintStats());
+        lines.add("             " + CustomButton.getPaintStats());
+        lines.add("Slow log:    " + (SlowQueryLog.isEnabled()
+            ? "statements over " + SlowQueryLog.getThresholdMillis() + " ms -> " + SlowQueryLog.getFile().toAbsolutePath()
+            : "off"));
+        summary.setText(String.join("\n", lines));
+        summary.setCaretPosition(0);
+    }
+
+    private void writeDump() {
+        try {
+            Path file = MetricsDumper.dumpToConfiguredFile();
+            JOptionPane.showMessageDialog(this, "Metrics written to\n" + file.toAbsolutePath(),
+                "Diagnostics", JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Could not write metrics: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * One row per operation; latencies shown in microseconds.
+     */
+    private static final class OperationTableModel extends AbstractTableModel {
+        private List<OperationStats> rows = new ArrayList<>();
+
+        void setRows(List<OperationStats> rows) {
+            boolean sameOperations = rows.size() == this.rows.size();
+            this.rows = rows;
+            if (sameOperations && !rows.isEmpty()) {
+                fireTableRowsUpdated(0, rows.size() - 1); // Keeps the selection and sort order
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : column <= 3 ? Long.class : Double.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            OperationStats s = rows.get(row);
+            switch (column) {
+                case 0: return s.getName();
+                case 1: return s.getCount();
+                case 2: return s.getRows();
+                case 3: return s.getErrors();
+                case 4: return micros(s.getMeanNanos());
+                case 5: return micros(s.getP50Nanos());
+                case 6: return micros(s.getP90Nanos());
+                case 7: return micros(s.getP99Nanos());
+                case 8: return micros(s.getP999Nanos());
+                default: return micros(s.getMaxNanos());
+            }
+        }
+
+        private static double micros(long nanos) {
+            return Math.round(nanos / 100.0) / 10.0; // One decimal place
+        }
+    }
+}
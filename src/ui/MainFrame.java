@@ -2,19 +2,21 @@ package ui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 @SuppressWarnings({ "unused", "serial" })
 public class MainFrame extends JFrame {
     
+    private DiagnosticsDialog diagnosticsDialog; // Created the first time Tools > Diagnostics is used
+    
     public MainFrame() {
         // Window setup
         setTitle("University Student Management System");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE); // Exits from windowClosing, after saving
         setSize(1000, 600);
         setLocationRelativeTo(null); // Center window
         
-        createMenuBar(); // Add menu bar
-        
         // Try to set window icon
         try {
             setIconImage(new ImageIcon("icon.png").getImage());
@@ -26,18 +28,44 @@ public class MainFrame extends JFrame {
         StudentPanel studentPanel = new StudentPanel();
         add(studentPanel);
         
+        createMenuBar(studentPanel); // Add menu bar
+        
+        // Close the window at once, then save the roster snapshot and exit off the EDT
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                dispose();
+                Thread exit = new Thread(() -> {
+                    studentPanel.shutdown(); // Waits for the snapshot to be written
+                    System.exit(0);
+                }, "student-management-exit");
+                exit.start(); // Not a daemon, so the JVM stays up until the save is done
+            }
+        });
+        
         setVisible(true); // Make window visible
     }
     
-    private void createMenuBar() {
+    private void createMenuBar(StudentPanel studentPanel) {
         JMenuBar menuBar = new JMenuBar();
         
         // File menu with Exit option
         JMenu fileMenu = new JMenu("File");
         JMenuItem exitItem = new JMenuItem("Exit");
-        exitItem.addActionListener(e -> System.exit(0)); // Close application
+        exitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING))); // Close like the window button
         fileMenu.add(exitItem);
         
+        // Tools menu with the diagnostics window (created on first use)
+        JMenu toolsMenu = new JMenu("Tools");
+        JMenuItem diagnosticsItem = new JMenuItem("Diagnostics");
+        diagnosticsItem.addActionListener(e -> {
+            if (diagnosticsDialog == null) {
+                diagnosticsDialog = new DiagnosticsDialog(this, studentPanel);
+            }
+            diagnosticsDialog.setVisible(true);
+        });
+        toolsMenu.add(diagnosticsItem);
+        
         // Help menu with About dialog
         JMenu helpMenu = new JMenu("Help");
         JMenuItem aboutItem = new JMenuItem("About");
@@ -52,6 +80,7 @@ public class MainFrame extends JFrame {
         
         // Add menus to menu bar
         menuBar.add(fileMenu);
+        menuBar.add(toolsMenu);
         menuBar.add(helpMenu);
         
         setJMenuBar(menuBar); // Set menu bar for frame
@@ -0,0 +1,62 @@
+package ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repaint counter and paint timer for one component (or a group of
+ * components sharing an instance). Recording costs a few counter updates,
+ * so it stays on all the time.
+ */
+public class PaintMetrics {
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60; // One frame at 60 Hz
+    
+    private final String name;
+    private final LongAdder paints = new LongAdder();
+    private final LongAdder paintNanos = new LongAdder();
+    private final AtomicLong maxPaintNanos = new AtomicLong();
+    private final LongAdder slowPaints = new LongAdder();
+    private final LongAdder cellsRendered = new LongAdder();
+    private final LongAdder imageRenders = new LongAdder();
+    
+    public PaintMetrics(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Records one paintComponent() call.
+     * @param nanos Time spent painting
+     */
+    public void recordPaint(long nanos) {
+        paints.increment();
+        paintNanos.add(nanos);
+        maxPaintNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos > FRAME_NANOS) slowPaints.increment();
+    }
+    
+    /**
+     * Records one cell renderer call.
+     */
+    public void recordCell() {
+        cellsRendered.increment();
+    }
+    
+    /**
+     * Records a visual state drawn into a cached image (a cache miss).
+     */
+    public void recordImageRender() {
+        imageRenders.increment();
+    }
+    
+    /**
+     * Gets the counters recorded so far.
+     * @return Snapshot of paint statistics
+     */
+    public PaintStats getStats() {
+        long count = paints.sum();
+        long avgMicros = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(paintNanos.sum() / count);
+        return new PaintStats(name, count, cellsRendered.sum(), imageRenders.sum(), avgMicros,
+            TimeUnit.NANOSECONDS.toMicros(maxPaintNanos.get()), slowPaints.sum());
+    }
+}
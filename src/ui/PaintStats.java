@@ -0,0 +1,39 @@
+package ui;
+
+/**
+ * Point-in-time snapshot of {@link PaintMetrics} counters.
+ */
+public class PaintStats {
+    private final String name;            // What was painted (e.g. "table")
+    private final long paints;            // paintComponent() calls
+    private final long cellsRendered;     // Cell renderer calls (tables only)
+    private final long imageRenders;      // States drawn into a cached image (image-cached components only)
+    private final long avgPaintMicros;    // Average time inside paintComponent()
+    private final long maxPaintMicros;    // Slowest paint seen
+    private final long slowPaints;        // Paints longer than one 60 Hz frame (16.7 ms)
+    
+    public PaintStats(String name, long paints, long cellsRendered, long imageRenders, long avgPaintMicros,
+                      long maxPaintMicros, long slowPaints) {
+        this.name = name;
+        this.paints = paints;
+        this.cellsRendered = cellsRendered;
+        this.imageRenders = imageRenders;
+        this.avgPaintMicros = avgPaintMicros;
+        this.maxPaintMicros = maxPaintMicros;
+        this.slowPaints = slowPaints;
+    }
+    
+    public String getName() { return name; }
+    public long getPaints() { return paints; }
+    public long getCellsRendered() { return cellsRendered; }
+    public long getImageRenders() { return imageRenders; }
+    public long getAvgPaintMicros() { return avgPaintMicros; }
+    public long getMaxPaintMicros() { return maxPaintMicros; }
+    public long getSlowPaints() { return slowPaints; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: paints=%d cells=%d imageRenders=%d avgPaint=%dus maxPaint=%dus slowPaints=%d",
+            name, paints, cellsRendered, imageRenders, avgPaintMicros, maxPaintMicros, slowPaints);
+    }
+}
@@ -0,0 +1,112 @@
+package ui;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Remembers how a component looks in each of its visual states, so a
+ * repaint is one image copy instead of redrawing gradients or antialiased
+ * shapes. Each state is rendered on first use into an image compatible
+ * with the screen (which Java2D can keep in video memory). All images are
+ * dropped when the component's size or the screen scale changes, or when
+ * {@link #invalidate()} is called after a style change.
+ */
+final class StateImageCache {
+    /**
+     * Draws one state of a component.
+     */
+    interface Renderer {
+        void render(Graphics2D g, int state, int width, int height);
+    }
+    
+    // -Dui.imageCache=false paints directly every time (to compare paint times)
+    static final boolean ENABLED = !"false".equals(System.getProperty("ui.imageCache"));
+    
+    private final BufferedImage[] images;
+    private final Renderer renderer;
+    private final PaintMetrics metrics;
+    private int width;
+    private int height;
+    private double scaleX = 1;
+    private double scaleY = 1;
+    
+    /**
+     * @param states Number of visual states (states are 0 .. states - 1)
+     * @param renderer Draws a state at a given size
+     * @param metrics Receives the paint time and a count of rendered images
+     */
+    StateImageCache(int states, Renderer renderer, PaintMetrics metrics) {
+        this.images = new BufferedImage[states];
+        this.renderer = renderer;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Paints a state of the component at its current size.
+     * @param g Component graphics
+     * @param component Component being painted
+     * @param state Visual state to show
+     */
+    void paint(Graphics g, Component component, int state) {
+        long start = System.nanoTime();
+        Graphics2D g2 = (Graphics2D) g;
+        int w = component.getWidth();
+        int h = component.getHeight();
+        if (w <= 0 || h <= 0) return;
+        
+        if (!ENABLED) {
+            renderer.render(g2, state, w, h);
+            metrics.recordPaint(System.nanoTime() - start);
+            return;
+        }
+        
+        AffineTransform transform = g2.getTransform(); // Render at device resolution on HiDPI screens
+        double sx = transform.getScaleX();
+        double sy = transform.getScaleY();
+        if (w != width || h != height || sx != scaleX || sy != scaleY) {
+            invalidate();
+            width = w;
+            height = h;
+            scaleX = sx;
+            scaleY = sy;
+        }
+        
+        BufferedImage image = images[state];
+        if (image == null) {
+            image = render(component, state, w, h, sx, sy);
+            images[state] = image;
+            metrics.recordImageRender();
+        }
+        g2.drawImage(image, 0, 0, w, h, null);
+        metrics.recordPaint(System.nanoTime() - start);
+    }
+    
+    /**
+     * Drops every cached image (e.g. after the component's colors changed).
+     */
+    void invalidate() {
+        for (int i = 0; i < images.length; i++) {
+            BufferedImage image = images[i];
+            if (image != null) image.flush();
+            images[i] = null;
+        }
+    }
+    
+    private BufferedImage render(Component component, int state, int w, int h, double sx, double sy) {
+        int pixelWidth = (int) Math.ceil(w * sx);
+        int pixelHeight = (int) Math.ceil(h * sy);
+        GraphicsConfiguration config = component.getGraphicsConfiguration();
+        BufferedImage image = config != null
+            ? config.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+            : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(sx, sy);
+            renderer.render(g, state, w, h);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
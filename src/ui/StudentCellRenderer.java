@@ -0,0 +1,178 @@
+package ui;
+
+import model.Grade;
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Cell renderer for the student table.
+ * <p>
+ * Colors, fonts and alignments are worked out once per column and per
+ * grade, so rendering a cell is a few array lookups and setter calls: no
+ * Color or Font objects are created and no strings are examined. It also
+ * tracks the row under the mouse and highlights it, repainting only the
+ * row that lost the highlight and the row that gained it.
+ * </p>
+ */
+public class StudentCellRenderer extends DefaultTableCellRenderer {
+    private static final long serialVersionUID = 1L;
+    
+    private static final int ID = 0, AGE = 2, EMAIL = 3, GRADE = 5;
+    private static final Color ID_BG = new Color(230, 240, 255);
+    private static final Color AGE_BG = new Color(240, 248, 255);
+    private static final Color EMAIL_FG = new Color(0, 102, 204);  // Blue email text
+    private static final String[] SMALL_NUMBERS = new String[128]; // Ages, without Integer.toString per cell
+    
+    static {
+        for (int i = 0; i < SMALL_NUMBERS.length; i++) {
+            SMALL_NUMBERS[i] = Integer.toString(i);
+        }
+    }
+    
+    // Per-column styles, indexed by column
+    private final Color[] evenBackground;
+    private final Color[] oddBackground;
+    private final Color[] foreground;      // null = the table's foreground
+    private final int[] alignment;
+    
+    // Per-grade styles, indexed by ordinal
+    private final Color[] gradeForeground = new Color[Grade.count()];
+    private final boolean[] gradeBold = new boolean[Grade.count()];
+    
+    private final Color hoverBackground;
+    private final Color selectedBackground;
+    private final Border focusBorder;
+    private final PaintMetrics metrics;
+    
+    private Font baseFont;   // Table font the two below were derived from
+    private Font plainFont;
+    private Font boldFont;
+    private int hoverRow = -1;
+    
+    /**
+     * @param columnCount Number of table columns
+     * @param altRow Background of odd rows
+     * @param hover Background of the row under the mouse
+     * @param selected Background of selected rows
+     * @param metrics Receives a count of rendered cells
+     */
+    public StudentCellRenderer(int columnCount, Color altRow, Color hover, Color selected, PaintMetrics metrics) {
+        this.hoverBackground = hover;
+        this.selectedBackground = selected;
+        this.metrics = metrics;
+        Border lafFocusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+        this.focusBorder = lafFocusBorder != null ? lafFocusBorder : BorderFactory.createLineBorder(selected.darker());
+        
+        evenBackground = new Color[columnCount];
+        oddBackground = new Color[columnCount];
+        foreground = new Color[columnCount];
+        alignment = new int[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            evenBackground[column] = Color.WHITE;
+            oddBackground[column] = altRow;
+            alignment[column] = JLabel.LEADING;
+        }
+        evenBackground[ID] = oddBackground[ID] = ID_BG;
+        evenBackground[AGE] = oddBackground[AGE] = AGE_BG;
+        foreground[EMAIL] = EMAIL_FG;
+        alignment[ID] = alignment[AGE] = alignment[GRADE] = JLabel.CENTER;
+        
+        for (Grade grade : Grade.values()) {
+            gradeForeground[grade.ordinal()] = new Color(grade.getRgb());
+            gradeBold[grade.ordinal()] = grade.getLetter() == 'A'; // Bold for A grades
+        }
+        setOpaque(true);
+    }
+    
+    /**
+     * Makes this the renderer for every column of a table and starts
+     * tracking the row under the mouse.
+     * @param table Student table
+     */
+    public void install(JTable table) {
+        table.setDefaultRenderer(Object.class, this);
+        table.setDefaultRenderer(Integer.class, this);
+        table.setDefaultRenderer(Grade.class, this);
+        
+        MouseAdapter hoverTracker = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverRow(table, table.rowAtPoint(e.getPoint()));
+            }
+            
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverRow(table, -1);
+            }
+        };
+        table.addMouseMotionListener(hoverTracker);
+        table.addMouseListener(hoverTracker);
+    }
+    
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+            boolean isSelected, boolean hasFocus, int row, int column) {
+        metrics.recordCell();
+        
+        Font tableFont = table.getFont();
+        if (tableFont != baseFont) { // Only when the table font changes
+            baseFont = tableFont;
+            plainFont = tableFont.deriveFont(Font.PLAIN);
+            boldFont = tableFont.deriveFont(Font.BOLD);
+        }
+        
+        Color fg = foreground[column];
+        boolean bold = false;
+        String text;
+        if (value == null) {
+            text = ""; // Row still loading, or no grade
+        } else if (value instanceof Grade) {
+            Grade grade = (Grade) value;
+            fg = gradeForeground[grade.ordinal()];
+            bold = gradeBold[grade.ordinal()];
+            text = grade.getLabel();
+        } else if (value instanceof Integer) {
+            int number = (Integer) value;
+            text = number >= 0 && number < SMALL_NUMBERS.length ? SMALL_NUMBERS[number] : Integer.toString(number);
+        } else {
+            text = value.toString();
+        }
+        
+        Color bg;
+        if (isSelected) {
+            bg = selectedBackground;
+            if (fg == null) fg = table.getSelectionForeground();
+        } else if (row == hoverRow) {
+            bg = hoverBackground;
+        } else {
+            bg = (row & 1) == 0 ? evenBackground[column] : oddBackground[column];
+        }
+        
+        setText(text);
+        setFont(bold ? boldFont : plainFont);
+        setForeground(fg != null ? fg : table.getForeground());
+        setBackground(bg);
+        setHorizontalAlignment(alignment[column]);
+        setBorder(hasFocus ? focusBorder : noFocusBorder);
+        return this;
+    }
+    
+    private void setHoverRow(JTable table, int row) {
+        if (row == hoverRow) return;
+        int previous = hoverRow;
+        hoverRow = row;
+        repaintRow(table, previous);
+        repaintRow(table, row);
+    }
+    
+    private static void repaintRow(JTable table, int row) {
+        if (row < 0 || row >= table.getRowCount()) return;
+        Rectangle bounds = table.getCellRect(row, 0, true);
+        bounds.width = table.getWidth(); // Whole row, nothing else
+        table.repaint(bounds);
+    }
+}
@@ -1,43 +1,126 @@
 package ui;
 
+import db.ChangeSet;
+import db.RosterSnapshot;
+import db.TableState;
+import model.Grade;
 import model.Student;
+import service.ImportError;
+import service.ImportProgress;
+import service.MeteredStudentService;
+import service.SearchResult;
+import service.StudentExporter;
 import service.StudentService;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @SuppressWarnings("serial")
 public class StudentPanel extends JPanel {
     private StudentService studentService;
     private JTable studentTable;
-    private DefaultTableModel tableModel;
+    private StudentTableModel tableModel;
     private JTextField searchField;
     private JLabel statusLabel;
+    private JProgressBar progressBar;                 // Shown while background calls run
+    private int busyCount;                            // Background calls in flight
+    private CompletableFuture<?> pendingTableLoad;    // Latest load/search feeding the table, null once shown
+    private Timestamp loadedAt;                       // Server time of the last full load or snapshot sync
+    private final List<ChangeSet> changesDuringLoad = new ArrayList<>(); // Held back until pendingTableLoad is shown
+    private int totalStudents;                        // Row count shown in the status bar
+    
+    // Search-as-you-type (delay can be set with -Dui.search.debounceMillis=...)
+    private static final int SEARCH_DEBOUNCE_MILLIS = Integer.getInteger("ui.search.debounceMillis", 250);
+    private Timer searchDebounce;                     // Restarted on every keystroke
+    private String lastSearchKeyword;                 // Keyword of the results currently shown
+    private List<Student> lastSearchResults;          // Full results for lastSearchKeyword
+    private String cappedSearchKeyword;               // Keyword of the listed results, if they were capped
+    private volatile boolean snapshotStale = true;    // Roster changed since the saved snapshot (read at exit)
+    private RosterSnapshot savedSnapshot;             // Last snapshot opened or saved, null if none
+    
+    // Paint instrumentation; ui.paintStats.intervalMillis > 0 prints it periodically
+    private static final int PAINT_STATS_INTERVAL_MILLIS = Integer.getInteger("ui.paintStats.intervalMillis", 0);
+    private final PaintMetrics tablePaintMetrics = new PaintMetrics("table");
+    private final PaintMetrics headerPaintMetrics = new PaintMetrics("header");
     
     // Blue theme colors
     private final Color HEADER_BG = new Color(52, 152, 219);      // Bright blue
     private final Color HEADER_FG = Color.WHITE;
     private final Color TABLE_BG = new Color(240, 248, 255);      // Alice blue
     private final Color TABLE_GRID = new Color(200, 220, 240);    // Light blue grid
-    @SuppressWarnings("unused")
-	private final Color ROW_HOVER = new Color(220, 237, 255);     // Light blue hover
+    private final Color ROW_HOVER = new Color(220, 237, 255);     // Light blue hover
     private final Color ROW_SELECTED = new Color(189, 224, 254);  // Selected row blue
     private final Color ALT_ROW = new Color(245, 250, 255);       // Alternate row
     private final Color TITLE_COLOR = new Color(25, 118, 210);    // Dark blue title
     private final Color STATUS_BG = new Color(30, 139, 195);      // Status bar blue
     
-    private String[] columns = {"ID", "Name", "Age", "Email", "Course", "Grade"};
-    
     public StudentPanel() {
-        this.studentService = new StudentService();
+        this.studentService = new MeteredStudentService();
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         setBackground(Color.WHITE);
         
         initComponents();
-        loadStudents();
+        if (!showSavedRoster()) { // Rows from the last session's snapshot, if there is one
+            loadStudents();
+        }
+        
+        // Merge changes made at other desks without reloading (polled by the service's invalidation bus)
+        studentService.addChangeListener(changes -> SwingUtilities.invokeLater(() -> onRemoteChanges(changes)));
+        studentService.startChangePolling();
+        
+        // Build the in-memory search index in the background; searches use the database until then
+        whenDone(studentService.buildSearchIndexAsync(), "Building search index...", ready -> { },
+            e -> System.err.println("❌ Search index not built: " + e.getMessage()));
+        
+        if (PAINT_STATS_INTERVAL_MILLIS > 0) {
+            long[] lastPaints = new long[3];
+            new Timer(PAINT_STATS_INTERVAL_MILLIS, e -> {
+                PaintStats[] all = {tablePaintMetrics.getStats(), headerPaintMetrics.getStats(), CustomButton.getPaintStats()};
+                for (int i = 0; i < all.length; i++) {
+                    if (all[i].getPaints() != lastPaints[i]) { // Quiet while nothing repaints
+                        lastPaints[i] = all[i].getPaints();
+                        System.out.println("🎨 " + all[i]);
+                    }
+                }
+            }).start();
+        }
+    }
+    
+    /**
+     * Gets repaint counts and paint times of the student table.
+     * @return Snapshot of table paint statistics
+     */
+    public PaintStats getTablePaintStats() {
+        return tablePaintMetrics.getStats();
+    }
+    
+    /**
+     * Gets repaint counts and paint times of the gradient header.
+     * @return Snapshot of header paint statistics
+     */
+    public PaintStats getHeaderPaintStats() {
+        return headerPaintMetrics.getStats();
+    }
+    
+    /**
+     * Gets the service this panel reads and writes through.
+     * @return Student service (its cache and coherence statistics feed the diagnostics window)
+     */
+    public StudentService getStudentService() {
+        return studentService;
     }
     
     private void initComponents() {
@@ -84,58 +167,27 @@ public class StudentPanel extends JPanel {
         centerPanel.setBorder(BorderFactory.createLineBorder(new Color(200, 220, 240), 2));
         centerPanel.setBackground(Color.WHITE);
         
-        // Create table model
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        // Create virtualized table model (loads only the pages being shown)
+        tableModel = new StudentTableModel(studentService);
+        tableModel.setPageErrorListener(e -> {
+            if (e == null) {
+                showTotal(tableModel.getRowCount()); // Pages load again
+            } else {
+                statusLabel.setText(" ⚠️ Could not load students: " + e.getMessage() + " - retrying...");
             }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 0 || columnIndex == 2) return Integer.class;
-                return String.class;
-            }
-        };
+        });
         
-        // Create styled table
+        // Create styled table; paints are counted and timed
         studentTable = new JTable(tableModel) {
             @Override
-            public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
-                Component c = super.prepareRenderer(renderer, row, column);
-                
-                // Alternate row colors
-                if (!isRowSelected(row)) {
-                    c.setBackground(row % 2 == 0 ? Color.WHITE : ALT_ROW);
-                }
-                
-                // Highlight specific columns with different colors
-                if (column == 0) { // ID column
-                    c.setBackground(new Color(230, 240, 255));
-                    ((JLabel) c).setHorizontalAlignment(JLabel.CENTER);
-                } else if (column == 2) { // Age column
-                    c.setBackground(new Color(240, 248, 255));
-                    ((JLabel) c).setHorizontalAlignment(JLabel.CENTER);
-                } else if (column == 3) { // Email column
-                    c.setForeground(new Color(0, 102, 204)); // Blue email text
-                } else if (column == 5) { // Grade column
-                    String grade = getValueAt(row, column).toString().toUpperCase();
-                    if (grade.contains("A")) {
-                        c.setForeground(new Color(0, 150, 0)); // Green for A
-                        c.setFont(c.getFont().deriveFont(Font.BOLD));
-                    } else if (grade.contains("B")) {
-                        c.setForeground(new Color(255, 140, 0)); // Orange for B
-                    } else if (grade.contains("C")) {
-                        c.setForeground(new Color(255, 69, 0)); // Red-Orange for C
-                    } else if (grade.contains("D") || grade.contains("F")) {
-                        c.setForeground(Color.RED); // Red for D/F
-                    }
-                    ((JLabel) c).setHorizontalAlignment(JLabel.CENTER);
-                }
-                
-                return c;
+            protected void paintComponent(Graphics g) {
+                long start = System.nanoTime();
+                super.paintComponent(g);
+                tablePaintMetrics.recordPaint(System.nanoTime() - start);
             }
         };
+        new StudentCellRenderer(StudentTableModel.COLUMNS.length, ALT_ROW, ROW_HOVER, ROW_SELECTED,
+            tablePaintMetrics).install(studentTable); // Also highlights the row under the mouse
         
         // Configure table appearance
         studentTable.setRowHeight(35);
@@ -178,14 +230,6 @@ public class StudentPanel extends JPanel {
             }
         });
         
-        // Set column specific alignments and widths
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(JLabel.CENTER);
-        
-        studentTable.getColumnModel().getColumn(0).setCellRenderer(centerRenderer);
-        studentTable.getColumnModel().getColumn(2).setCellRenderer(centerRenderer);
-        studentTable.getColumnModel().getColumn(5).setCellRenderer(centerRenderer);
-        
         // Set column widths
         TableColumnModel columnModel = studentTable.getColumnModel();
         columnModel.getColumn(0).setPreferredWidth(60);   // ID
@@ -198,6 +242,8 @@ public class StudentPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(studentTable);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getViewport().setBackground(TABLE_BG);
+        // Tell the model which rows are on screen so it fetches just those pages
+        scrollPane.getViewport().addChangeListener(e -> updateVisibleRows(scrollPane.getViewport()));
         centerPanel.add(scrollPane, BorderLayout.CENTER);
         
         // Button panel with blue theme
@@ -210,11 +256,15 @@ public class StudentPanel extends JPanel {
         JButton deleteButton = new CustomButton("🗑️ Delete Student", "danger");
         JButton refreshButton = new CustomButton("🔄 Refresh", "info");
         JButton viewButton = new CustomButton("👁️ View Details", "success");
+        JButton importButton = new CustomButton("📥 Import CSV", "info");
+        JButton exportButton = new CustomButton("📤 Export", "info");
         
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(viewButton);
+        buttonPanel.add(importButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(refreshButton);
         
         centerPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -230,20 +280,54 @@ public class StudentPanel extends JPanel {
             BorderFactory.createMatteBorder(1, 0, 0, 0, HEADER_BG),
             BorderFactory.createEmptyBorder(5, 15, 5, 15)
         ));
-        add(statusLabel, BorderLayout.SOUTH);
+        
+        // Progress indicator for database calls running in the background
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        progressBar.setPreferredSize(new Dimension(180, 18));
+        progressBar.setVisible(false);
+        
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setBackground(STATUS_BG);
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        JPanel progressHolder = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 4));
+        progressHolder.setOpaque(false);
+        progressHolder.add(progressBar);
+        statusBar.add(progressHolder, BorderLayout.EAST);
+        add(statusBar, BorderLayout.SOUTH);
         
         // Add action listeners
         addButton.addActionListener(e -> addStudent());
         editButton.addActionListener(e -> editStudent());
         deleteButton.addActionListener(e -> deleteStudent());
         viewButton.addActionListener(e -> viewStudentDetails());
-        refreshButton.addActionListener(e -> loadStudents());
-        searchButton.addActionListener(e -> searchStudents());
+        importButton.addActionListener(e -> importStudents());
+        exportButton.addActionListener(e -> exportStudents());
+        refreshButton.addActionListener(e -> refresh());
+        searchButton.addActionListener(e -> {
+            searchDebounce.stop();
+            searchStudents();
+        });
         clearButton.addActionListener(e -> {
             searchField.setText("");
+            searchDebounce.stop(); // Clearing already reloads - no extra search needed
             loadStudents();
         });
         
+        // Search as the user types, once typing pauses for the debounce delay
+        searchDebounce = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> searchStudents());
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchDebounce.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchDebounce.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { searchDebounce.restart(); }
+        });
+        
         // Double-click to view details
         studentTable.addMouseListener(new MouseAdapter() {
             @Override
@@ -253,51 +337,166 @@ public class StudentPanel extends JPanel {
                 }
             }
         });
-        
-        // Hover effect for table rows
-        studentTable.addMouseMotionListener(new MouseMotionAdapter() {
-            @Override
-            public void mouseMoved(MouseEvent e) {
-                int row = studentTable.rowAtPoint(e.getPoint());
-                if (row >= 0 && !studentTable.isRowSelected(row)) {
-                    studentTable.setRowSelectionInterval(row, row);
-                }
-            }
-        });
     }
     
     private void loadStudents() {
-        try {
-            List<Student> students = studentService.getAllPersons();
-            tableModel.setRowCount(0);
-            
-            for (Student student : students) {
-                Object[] row = {
-                    student.getId(),
-                    student.getName(),
-                    student.getAge(),
-                    student.getEmail(),
-                    student.getCourse(),
-                    student.getGrade()
-                };
-                tableModel.addRow(row);
-            }
-            
-            // Format current time nicely
-            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("hh:mm:ss a");
-            String time = sdf.format(new java.util.Date());
-            
-            statusLabel.setText(" 📊 Total Students: " + students.size() + 
-                              " | 📅 " + new java.text.SimpleDateFormat("EEE, MMM dd yyyy").format(new java.util.Date()) +
-                              " | ⏰ Last updated: " + time);
-            
-        } catch (Exception e) {
+        // Only the row count is read here; rows are paged in as they scroll into view
+        CompletableFuture<TableState> future = studentService.getTableStateAsync();
+        replaceTableLoad(future);
+        clearSearchResults(); // Data may have changed - earlier results can't be narrowed any more
+        
+        whenDone(future, "Loading students...", state -> {
+            if (future != pendingTableLoad) return; // A newer load or search replaced this one
+            tableModel.showAll(state.getRowCount(), state.getMaxId());
+            showTotal(state.getRowCount());
+            loadedAt = state.getServerTime();
+            finishTableLoad(future);
+        }, e -> {
+            finishTableLoad(future);
             JOptionPane.showMessageDialog(this, 
                 "<html><font color='red'>❌ Error loading students:</font><br>" + e.getMessage() + "</html>", 
                 "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    /**
+     * Shows the roster saved at the end of the last session straight away,
+     * then brings it up to date with the changes made since it was saved.
+     * @return false if there is no usable snapshot
+     */
+    private boolean showSavedRoster() {
+        RosterSnapshot snapshot = studentService.openSnapshot();
+        if (snapshot == null) return false;
+        
+        tableModel.showSnapshot(snapshot);
+        totalStudents = snapshot.getRowCount();
+        String savedAt = new java.text.SimpleDateFormat("MMM dd hh:mm a").format(snapshot.getWatermark());
+        statusLabel.setText(" 📦 Total Students: " + snapshot.getRowCount() + " | Saved roster from " + savedAt + " - syncing...");
+        snapshotStale = false;
+        savedSnapshot = snapshot;
+        
+        CompletableFuture<ChangeSet> future = studentService.getChangesSinceAsync(snapshot.getWatermark());
+        replaceTableLoad(future); // A search or reload started meanwhile supersedes the sync
+        whenDone(future, "Syncing saved roster...", changes -> {
+            if (future != pendingTableLoad) return;
+            if (changes.isEmpty()) {
+                showTotal(tableModel.getRowCount()); // Snapshot is current
+            } else {
+                mergeChanges(changes); // Switches the table to live paging
+            }
+            loadedAt = changes.getWatermark();
+            finishTableLoad(future);
+        }, e -> {
+            finishTableLoad(future);
+            statusLabel.setText(" ⚠️ Database unreachable - showing saved roster from " + savedAt + 
+                                " (" + snapshot.getRowCount() + " students)");
+        });
+        return true;
+    }
+    
+    /**
+     * Saves the roster snapshot in the background.
+     */
+    private void saveSnapshot() {
+        whenDone(studentService.writeSnapshotAsync(), "Saving roster snapshot...", rows -> {
+            snapshotStale = false;
+            savedSnapshot = studentService.openSnapshot(); // Only maps the file
+        }, e -> System.err.println("⚠️ Roster snapshot not saved: " + e.getMessage()));
+    }
+    
+    /**
+     * Called when the application closes: saves the roster snapshot if it
+     * changed, so the next start can show it immediately. Blocks until it is
+     * written, so call it after the window is gone and off the Event Dispatch Thread.
+     */
+    public void shutdown() {
+        if (!snapshotStale) return;
+        try {
+            studentService.writeSnapshotAsync().get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("⚠️ Roster snapshot not saved: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Refresh button: when the whole table is shown, pull just the changed
+     * rows; otherwise (search results) go back to the full list.
+     */
+    private void refresh() {
+        if (tableModel.isShowingAll()) {
+            whenDone(studentService.syncNowAsync(), "Checking for changes...", done -> saveSnapshot(), this::showError);
+        } else {
+            loadStudents();
+        }
+    }
+    
+    /**
+     * Handles a change set from the invalidation bus. While a load or search
+     * is running the change set is held back, so it cannot be overwritten by
+     * (or overwrite) the result; change sets polled before the last full load
+     * are dropped, as that load already shows them and their row count is older.
+     */
+    private void onRemoteChanges(ChangeSet changes) {
+        if (pendingTableLoad != null) {
+            changesDuringLoad.add(changes);
+            return;
+        }
+        if (loadedAt != null && changes.getWatermark().before(loadedAt)) return;
+        mergeChanges(changes);
+    }
+    
+    /**
+     * Marks a load or search as shown and handles the change sets held back
+     * while it ran.
+     */
+    private void finishTableLoad(CompletableFuture<?> future) {
+        if (future != pendingTableLoad) return; // A newer load or search is still running
+        pendingTableLoad = null;
+        List<ChangeSet> held = new ArrayList<>(changesDuringLoad);
+        changesDuringLoad.clear();
+        held.forEach(this::onRemoteChanges);
+    }
+    
+    /**
+     * Applies synced changes to the table, keeping the selected student selected.
+     */
+    private void mergeChanges(ChangeSet changes) {
+        int selectedRow = studentTable.getSelectedRow();
+        Student selected = selectedRow >= 0 ? tableModel.getStudentAt(selectedRow) : null;
+        
+        tableModel.applyChanges(changes);
+        clearSearchResults(); // Results to narrow may be out of date now
+        if (savedSnapshot == null || !savedSnapshot.isCurrentWith(changes)) {
+            snapshotStale = true; // Not for changes delivered again or already saved
+        }
+        
+        if (selected != null && studentTable.getSelectedRow() < 0) {
+            int row = tableModel.findRow(selected.getId()); // Model was reset - reselect by ID
+            if (row >= 0) studentTable.setRowSelectionInterval(row, row);
+        }
+        
+        if (tableModel.isShowingAll()) {
+            showTotal(tableModel.getRowCount());
+        } else if (changes.getRowCount() >= 0) {
+            totalStudents = changes.getRowCount(); // Keep the search status text
         }
     }
     
+    /**
+     * Shows the student count and update time in the status bar.
+     */
+    private void showTotal(int total) {
+        totalStudents = total;
+        
+        // Format current time nicely
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("hh:mm:ss a");
+        String time = sdf.format(new java.util.Date());
+        
+        statusLabel.setText(" 📊 Total Students: " + total + 
+                          " | 📅 " + new java.text.SimpleDateFormat("EEE, MMM dd yyyy").format(new java.util.Date()) +
+                          " | ⏰ Last updated: " + time);
+    }
+    
     private void searchStudents() {
         String keyword = searchField.getText().trim();
         if (keyword.isEmpty()) {
@@ -305,29 +504,48 @@ public class StudentPanel extends JPanel {
             return;
         }
         
-        try {
-            List<Student> students = studentService.searchStudents(keyword);
-            tableModel.setRowCount(0);
-            
-            for (Student student : students) {
-                Object[] row = {
-                    student.getId(),
-                    student.getName(),
-                    student.getAge(),
-                    student.getEmail(),
-                    student.getCourse(),
-                    student.getGrade()
-                };
-                tableModel.addRow(row);
-            }
-            
-            statusLabel.setText(" 🔍 Found " + students.size() + " student(s) for: '" + keyword + "'");
-            
-        } catch (Exception e) {
+        // Typing more letters only narrows the results already loaded - no query needed
+        // (not used with the search index: its results are capped and it answers instantly anyway)
+        if (lastSearchKeyword != null && !studentService.isSearchIndexReady()
+                && keyword.toLowerCase(Locale.ROOT).contains(lastSearchKeyword.toLowerCase(Locale.ROOT))) {
+            replaceTableLoad(null); // Also cancels any query still running
+            showSearchResults(keyword, SearchResult.complete(StudentService.filterByName(lastSearchResults, keyword)));
+            finishTableLoad(null);
+            return;
+        }
+        
+        CompletableFuture<SearchResult> future = studentService.searchStudentsAsync(keyword);
+        replaceTableLoad(future); // Cancels the previous keystroke's query, if still running
+        clearSearchResults();
+        
+        whenDone(future, "Searching...", result -> {
+            if (future != pendingTableLoad) return; // Stale search result
+            lastSearchKeyword = keyword;
+            lastSearchResults = result.getStudents();
+            showSearchResults(keyword, result);
+            finishTableLoad(future);
+        }, e -> {
+            finishTableLoad(future);
             JOptionPane.showMessageDialog(this, "Search error: " + e.getMessage());
+        });
+    }
+    
+    private void showSearchResults(String keyword, SearchResult result) {
+        tableModel.showRows(result.getStudents());
+        cappedSearchKeyword = result.isTruncated() ? keyword : null;
+        if (result.isTruncated()) {
+            statusLabel.setText(" 🔍 Showing best " + result.getStudents().size() + " of " + result.getTotalMatches() +
+                                " students for: '" + keyword + "' - type more to narrow it down");
+        } else {
+            statusLabel.setText(" 🔍 Found " + result.getTotalMatches() + " student(s) for: '" + keyword + "'");
         }
     }
     
+    private void clearSearchResults() {
+        lastSearchKeyword = null;
+        lastSearchResults = null;
+    }
+    
     private void addStudent() {
         // Create styled input dialog
         JPanel panel = new JPanel(new GridLayout(5, 2, 10, 10));
@@ -354,27 +572,28 @@ public class StudentPanel extends JPanel {
             JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         
         if (option == JOptionPane.OK_OPTION) {
+            Student student = new Student();
             try {
-                Student student = new Student();
                 student.setName(nameField.getText());
                 student.setAge(Integer.parseInt(ageField.getText()));
                 student.setEmail(emailField.getText());
                 student.setCourse(courseField.getText());
-                student.setGrade(gradeField.getText().toUpperCase());
-                
-                studentService.addPerson(student);
-                loadStudents();
+                student.setGrade(Grade.parse(gradeField.getText()));
+            } catch (IllegalArgumentException e) { // Bad age or grade
+                showError(e);
+                return;
+            }
+            
+            whenDone(studentService.addPersonAsync(student), "Saving student...", saved -> {
+                tableModel.insertStudent(saved); // Single-row insert - no reload
+                clearSearchResults();
+                showTotal(totalStudents + 1);
                 
                 JOptionPane.showMessageDialog(this,
                     "<html><font color='#2E7D32'><b>✅ Success!</b></font><br>" +
-                    "Student <b>" + student.getName() + "</b> has been added.</html>",
+                    "Student <b>" + saved.getName() + "</b> has been added.</html>",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
-                    
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                    "<html><font color='#C62828'>❌ Error:</font><br>" + e.getMessage() + "</html>",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
@@ -387,11 +606,13 @@ public class StudentPanel extends JPanel {
             return;
         }
         
-        int studentId = (int) tableModel.getValueAt(selectedRow, 0);
-        String studentName = (String) tableModel.getValueAt(selectedRow, 1);
+        Student selected = tableModel.getStudentAt(selectedRow);
+        if (selected == null) return; // Row still loading
+        int studentId = selected.getId();
+        String studentName = selected.getName();
         
-        try {
-            Student student = studentService.getPerson(studentId);
+        // Re-read the latest version before editing, then show the dialog on the EDT
+        whenDone(studentService.getPersonAsync(studentId), "Loading student...", student -> {
             if (student == null) {
                 JOptionPane.showMessageDialog(this, "Student not found!");
                 return;
@@ -404,7 +625,7 @@ public class StudentPanel extends JPanel {
             JTextField ageField = createStyledTextField(String.valueOf(student.getAge()));
             JTextField emailField = createStyledTextField(student.getEmail());
             JTextField courseField = createStyledTextField(student.getCourse());
-            JTextField gradeField = createStyledTextField(student.getGrade());
+            JTextField gradeField = createStyledTextField(student.getGradeLabel());
             
             panel.add(createLabel("Full Name:"));
             panel.add(nameField);
@@ -422,25 +643,31 @@ public class StudentPanel extends JPanel {
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
             
             if (option == JOptionPane.OK_OPTION) {
-                student.setName(nameField.getText());
-                student.setAge(Integer.parseInt(ageField.getText()));
-                student.setEmail(emailField.getText());
-                student.setCourse(courseField.getText());
-                student.setGrade(gradeField.getText().toUpperCase());
-                
-                studentService.updatePerson(student);
-                loadStudents();
+                try {
+                    student.setName(nameField.getText());
+                    student.setAge(Integer.parseInt(ageField.getText()));
+                    student.setEmail(emailField.getText());
+                    student.setCourse(courseField.getText());
+                    String oldGrade = student.getGradeLabel() == null ? "" : student.getGradeLabel();
+                    if (!gradeField.getText().trim().equals(oldGrade.trim())) {
+                        student.setGrade(Grade.parse(gradeField.getText())); // Unchanged legacy grades stay as they are
+                    }
+                } catch (IllegalArgumentException e) { // Bad age or grade
+                    showError(e);
+                    return;
+                }
                 
-                JOptionPane.showMessageDialog(this,
-                    "<html><font color='#2E7D32'><b>✅ Updated!</b></font><br>" +
-                    "Student <b>" + student.getName() + "</b> has been updated.</html>",
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                whenDone(studentService.updatePersonAsync(student), "Saving changes...", updated -> {
+                    tableModel.updateStudent(updated); // Repaint just this row; selection stays
+                    clearSearchResults();
+                    
+                    JOptionPane.showMessageDialog(this,
+                        "<html><font color='#2E7D32'><b>✅ Updated!</b></font><br>" +
+                        "Student <b>" + updated.getName() + "</b> has been updated.</html>",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                }, this::showError);
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this,
-                "<html><font color='#C62828'>❌ Error:</font><br>" + e.getMessage() + "</html>",
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void deleteStudent() {
@@ -452,8 +679,10 @@ public class StudentPanel extends JPanel {
             return;
         }
         
-        int studentId = (int) tableModel.getValueAt(selectedRow, 0);
-        String studentName = (String) tableModel.getValueAt(selectedRow, 1);
+        Student selected = tableModel.getStudentAt(selectedRow);
+        if (selected == null) return; // Row still loading
+        int studentId = selected.getId();
+        String studentName = selected.getName();
         
         // Custom confirmation dialog
         JPanel panel = new JPanel(new BorderLayout(10, 10));
@@ -472,30 +701,95 @@ public class StudentPanel extends JPanel {
             JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                studentService.deletePerson(studentId);
-                loadStudents();
+            whenDone(studentService.deletePersonAsync(studentId), "Deleting student...", id -> {
+                tableModel.removeStudent(id); // Single-row delete - rows below shift up
+                clearSearchResults();
+                showTotal(totalStudents - 1);
                 
                 JOptionPane.showMessageDialog(this,
                     "<html><font color='#2E7D32'>✅ Student deleted successfully</font></html>",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                    "<html><font color='#C62828'>❌ Error:</font><br>" + e.getMessage() + "</html>",
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            }, this::showError);
+        }
+    }
+    
+    private void importStudents() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("📥 Import Students from CSV");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        // Progress arrives on the import thread a few times per second
+        Consumer<ImportProgress> progress = p -> SwingUtilities.invokeLater(() -> statusLabel.setText(String.format(
+            " 📥 Importing: %,d rows read | %,d imported | %,d rejected | ⚡ %,d rows/sec",
+            p.getRowsRead(), p.getRowsImported(), p.getRowsFailed(), p.getRowsPerSecond())));
+        
+        whenDone(studentService.importCsvAsync(chooser.getSelectedFile().toPath(), progress), "Importing students...", result -> {
+            loadStudents(); // Many rows added - reload rather than insert one by one
+            
+            StringBuilder message = new StringBuilder(String.format(
+                "<html><font color='#2E7D32'><b>✅ Import finished</b></font><br>" +
+                "%,d student(s) imported, %,d rejected in %.1f s (%,d rows/sec)",
+                result.getRowsImported(), result.getRowsFailed(),
+                result.getElapsedMillis() / 1000.0, result.getRowsPerSecond()));
+            List<ImportError> errors = result.getErrors();
+            int shown = Math.min(errors.size(), 15);
+            if (shown > 0) {
+                message.append("<br><br><font color='#C62828'>Rejected rows:</font>");
+                for (ImportError error : errors.subList(0, shown)) {
+                    message.append("<br>• ").append(escapeHtml(error.toString())); // Contains raw CSV text
+                }
+                if (result.getRowsFailed() > shown) {
+                    message.append("<br>... and ").append(result.getRowsFailed() - shown).append(" more");
+                }
             }
+            message.append("</html>");
+            JOptionPane.showMessageDialog(this, message.toString(), "Import", 
+                result.getRowsFailed() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+        }, this::showError);
+    }
+    
+    private void exportStudents() {
+        List<Student> listed = tableModel.getListedStudents(); // Search results, or null for the whole table
+        String searchAgain = listed != null ? cappedSearchKeyword : null; // Only the best matches are listed
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(listed == null ? "📤 Export All Students" : "📤 Export Search Results");
+        chooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV (*.csv, *.csv.gz)", "csv", "gz"));
+        chooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("JSON Lines (*.jsonl, *.jsonl.gz)", "jsonl", "gz"));
+        chooser.setSelectedFile(new java.io.File("students.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        java.io.File file = chooser.getSelectedFile();
+        StudentExporter.Format format = StudentExporter.Format.fromFileName(file.getName());
+        if (format == null) { // No known extension - default to CSV
+            format = StudentExporter.Format.CSV;
+            file = new java.io.File(file.getPath() + ".csv");
         }
+        boolean gzip = file.getName().toLowerCase(Locale.ROOT).endsWith(".gz");
+        String fileName = file.getName();
+        long start = System.nanoTime();
+        
+        CompletableFuture<Long> export = searchAgain != null
+            ? studentService.exportSearchAsync(searchAgain, file.toPath(), format, gzip) // Every match, not the capped list
+            : studentService.exportAsync(listed, file.toPath(), format, gzip);
+        whenDone(export, "Exporting students...", rows -> {
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            statusLabel.setText(String.format(" 📤 Exported %,d student(s) to %s in %.1f s (%,d rows/sec)",
+                rows, fileName, millis / 1000.0, rows * 1000 / millis));
+        }, this::showError);
     }
     
     private void viewStudentDetails() {
         int selectedRow = studentTable.getSelectedRow();
         if (selectedRow == -1) return;
         
-        int studentId = (int) tableModel.getValueAt(selectedRow, 0);
-        String studentName = (String) tableModel.getValueAt(selectedRow, 1);
+        Student selected = tableModel.getStudentAt(selectedRow);
+        if (selected == null) return; // Row still loading
+        int studentId = selected.getId();
+        String studentName = selected.getName();
         
-        try {
-            Student student = studentService.getPerson(studentId);
+        whenDone(studentService.getPersonAsync(studentId), "Loading details...", student -> {
             if (student != null) {
                 // Create styled details panel
                 JPanel panel = new JPanel(new BorderLayout(10, 10));
@@ -534,7 +828,7 @@ public class StudentPanel extends JPanel {
                     student.getEmail(),
                     student.getCourse(),
                     getGradeColor(student.getGrade()),
-                    student.getGrade());
+                    student.getGradeLabel());
                 
                 JLabel detailsLabel = new JLabel(details);
                 detailsLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -546,9 +840,89 @@ public class StudentPanel extends JPanel {
                     "Student Details: " + studentName, 
                     JOptionPane.INFORMATION_MESSAGE);
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading details: " + e.getMessage());
+        }, e -> JOptionPane.showMessageDialog(this, "Error loading details: " + e.getMessage()));
+    }
+    
+    // ---------- Background work helpers ----------
+    
+    /**
+     * Makes a load or search the current table request, cancelling the previous
+     * one so a slow, stale result can never overwrite a newer one.
+     */
+    private void replaceTableLoad(CompletableFuture<?> future) {
+        if (pendingTableLoad != null) {
+            pendingTableLoad.cancel(true);
         }
+        pendingTableLoad = future;
+    }
+    
+    /**
+     * Shows progress while a background call runs, then handles its result
+     * on the Event Dispatch Thread. Cancelled calls are ignored.
+     */
+    private <T> void whenDone(CompletableFuture<T> future, String busyMessage,
+                              Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        beginBusy(busyMessage);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            endBusy();
+            if (error == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (!(cause instanceof CancellationException)) {
+                onError.accept(cause);
+            }
+        }));
+    }
+    
+    private void beginBusy(String message) {
+        busyCount++;
+        progressBar.setString(message);
+        progressBar.setVisible(true);
+    }
+    
+    private void endBusy() {
+        if (--busyCount == 0) {
+            progressBar.setVisible(false);
+        }
+    }
+    
+    private void showError(Throwable e) {
+        JOptionPane.showMessageDialog(this,
+            "<html><font color='#C62828'>❌ Error:</font><br>" + escapeHtml(String.valueOf(e.getMessage())) + "</html>",
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Escapes text for an &lt;html&gt; label, so markup in it is shown as typed.
+     */
+    private static String escapeHtml(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                default: out.append(c);
+            }
+        }
+        return out.toString();
+    }
+    
+    /**
+     * Passes the range of rows visible in the viewport to the table model.
+     */
+    private void updateVisibleRows(JViewport viewport) {
+        Rectangle view = viewport.getViewRect();
+        int first = studentTable.rowAtPoint(new Point(0, view.y));
+        int last = studentTable.rowAtPoint(new Point(0, view.y + view.height - 1));
+        if (first < 0) return; // Empty table
+        if (last < 0) last = tableModel.getRowCount() - 1; // Viewport taller than the table
+        tableModel.setVisibleRows(first, last);
     }
     
     // Helper methods for styling
@@ -573,30 +947,31 @@ public class StudentPanel extends JPanel {
         return field;
     }
     
-    private String getGradeColor(String grade) {
-        if (grade == null) return "#333";
-        grade = grade.toUpperCase();
-        if (grade.contains("A")) return "#2E7D32"; // Green
-        if (grade.contains("B")) return "#FB8C00"; // Orange
-        if (grade.contains("C")) return "#F4511E"; // Red-Orange
-        if (grade.contains("D") || grade.contains("F")) return "#C62828"; // Red
-        return "#333"; // Default
+    private String getGradeColor(Grade grade) {
+        if (grade == null) return "#333"; // Default
+        switch (grade.getLetter()) {
+            case 'A': return "#2E7D32"; // Green
+            case 'B': return "#FB8C00"; // Orange
+            case 'C': return "#F4511E"; // Red-Orange
+            default: return "#C62828"; // Red for D/F
+        }
     }
     
     // Custom panel for gradient background
     class GradientPanel extends JPanel {
+        private final Color color1 = new Color(41, 128, 185); // Dark blue
+        private final Color color2 = new Color(52, 152, 219); // Light blue
+        private final StateImageCache gradient = new StateImageCache(1, this::renderGradient, headerPaintMetrics);
+        
         @Override
         protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
+            gradient.paint(g, this, 0); // Covers the whole panel, so no background fill first
+        }
+        
+        private void renderGradient(Graphics2D g2d, int state, int width, int height) {
             g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            
-            Color color1 = new Color(41, 128, 185); // Dark blue
-            Color color2 = new Color(52, 152, 219); // Light blue
-            
-            GradientPaint gp = new GradientPaint(0, 0, color1, getWidth(), 0, color2);
-            g2d.setPaint(gp);
-            g2d.fillRect(0, 0, getWidth(), getHeight());
+            g2d.setPaint(new GradientPaint(0, 0, color1, width, 0, color2));
+            g2d.fillRect(0, 0, width, height);
         }
     }
 }
\ No newline at end of file
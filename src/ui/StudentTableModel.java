@@ -0,0 +1,587 @@
+package ui;
+
+import db.ChangeSet;
+import db.RosterSnapshot;
+import model.Student;
+import service.StudentService;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Virtualized table model for the student table.
+ * <p>
+ * In paged mode only the pages the viewport shows are fetched from the
+ * database on the service's background executor (using keyset pagination)
+ * and kept in a small LRU page cache, so memory is bounded by the cache
+ * size rather than the table size.
+ * The page after the visible range is prefetched. Rows that are not loaded
+ * yet show as blank and are filled in when their page arrives.
+ * </p>
+ * <p>
+ * In list mode the model simply shows a given list (e.g. search results).
+ * </p>
+ * <p>
+ * In snapshot mode rows come from a memory-mapped {@link RosterSnapshot}
+ * (used at startup, before the database has answered). The first change
+ * applied switches to paged mode, keeping the rows on screen.
+ * </p>
+ * <p>
+ * Adds, edits and deletes are applied as single-row changes
+ * ({@link #insertStudent}, {@link #updateStudent}, {@link #removeStudent})
+ * so selection and scroll position survive and nothing is reloaded.
+ * Changes made at other desks are merged the same way by {@link #applyChanges}.
+ * All methods must be called on the Event Dispatch Thread.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public class StudentTableModel extends AbstractTableModel {
+    public static final String[] COLUMNS = {"ID", "Name", "Age", "Email", "Course", "Grade"};
+
+    private static final int DEFAULT_PAGE_SIZE = 100;     // Rows per database page
+    private static final int DEFAULT_CACHED_PAGES = 20;   // Pages kept in memory
+    private static final long MIN_RETRY_MILLIS = 1000;     // Wait before reloading a failed page...
+    private static final long MAX_RETRY_MILLIS = 30_000;   // ...doubled per failure up to this
+
+    private final StudentService studentService;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    // List mode: rows != null
+    private List<Student> rows;
+
+    // Snapshot mode: snapshot != null (rowCount and maxKnownId are the snapshot's)
+    private RosterSnapshot snapshot;
+    private final Student[] decodedRows = new Student[256];  // Recently decoded snapshot rows, by row % 256
+    private final int[] decodedRowIndex = new int[256];
+
+    // Paged mode
+    private int rowCount;
+    private int maxKnownId;                  // Highest ID counted in rowCount (new IDs go after it)
+    private final LinkedHashMap<Integer, Student[]> pages;  // LRU page cache
+    private final Set<Integer> requested = new HashSet<>(); // Pages queued or loading
+    private final Map<Integer, Long> failedUntil = new HashMap<>(); // Failed pages -> nanoTime of next retry
+    private long retryMillis = MIN_RETRY_MILLIS; // Backoff while the database keeps failing
+    private Consumer<Throwable> pageErrorListener;
+    private int[] pageAfterIds = new int[0]; // Keyset start of each page (-1 = unknown)
+    private int generation;                  // Bumped on reset so stale loads are dropped
+
+    // Rows currently shown by the viewport (used to skip loads that scrolled away)
+    private volatile int firstVisibleRow;
+    private volatile int lastVisibleRow;
+
+    public StudentTableModel(StudentService studentService) {
+        this(studentService, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    public StudentTableModel(StudentService studentService, int pageSize, int maxCachedPages) {
+        this.studentService = studentService;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Student[]> eldest) {
+                return size() > StudentTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Sets the listener told when a page fails to load (with the error) and
+     * when pages load again after a failure (with null).
+     * @param listener Called on the Event Dispatch Thread
+     */
+    public void setPageErrorListener(Consumer<Throwable> listener) {
+        this.pageErrorListener = listener;
+    }
+
+    /**
+     * Switches to paged mode over the whole students table.
+     * @param totalRows Current number of students
+     * @param maxId Highest student ID in the table
+     */
+    public void showAll(int totalRows, int maxId) {
+        rows = null;
+        snapshot = null;
+        rowCount = totalRows;
+        maxKnownId = maxId;
+        pages.clear();
+        requested.clear();
+        failedUntil.clear();
+        pageAfterIds = new int[(totalRows + pageSize - 1) / pageSize];
+        Arrays.fill(pageAfterIds, -1);
+        if (pageAfterIds.length > 0) pageAfterIds[0] = 0; // First page starts after ID 0
+        generation++;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Switches to list mode, showing exactly the given students.
+     * @param students Students to show (e.g. search results)
+     */
+    public void showRows(List<Student> students) {
+        rows = new ArrayList<>(students); // Own copy - rows are edited in place later
+        snapshot = null;
+        pages.clear();
+        requested.clear();
+        failedUntil.clear();
+        generation++;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Switches to snapshot mode, showing a saved roster without any database access.
+     * @param roster Mapped snapshot
+     */
+    public void showSnapshot(RosterSnapshot roster) {
+        rows = null;
+        snapshot = roster;
+        rowCount = roster.getRowCount();
+        maxKnownId = roster.getMaxId();
+        Arrays.fill(decodedRows, null);
+        pages.clear();
+        requested.clear();
+        failedUntil.clear();
+        pageAfterIds = new int[0];
+        generation++;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Checks whether rows are still served from a saved snapshot.
+     * @return true in snapshot mode
+     */
+    public boolean isShowingSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * Tells the model which rows the viewport shows, so it can load them
+     * (plus the page after) and skip loads for pages scrolled out of view.
+     * @param first First visible row
+     * @param last Last visible row
+     */
+    public void setVisibleRows(int first, int last) {
+        firstVisibleRow = first;
+        lastVisibleRow = last;
+        if (rows != null || snapshot != null || rowCount == 0) return;
+
+        int lastPage = Math.min(pageOf(last) + 1, pageAfterIds.length - 1); // Prefetch one page ahead
+        for (int page = pageOf(first); page <= lastPage; page++) {
+            requestPage(page);
+        }
+    }
+
+    /**
+     * Checks whether the model shows the whole table (paged or snapshot mode).
+     * @return true in paged or snapshot mode, false when showing a list
+     */
+    public boolean isShowingAll() {
+        return rows == null;
+    }
+
+    /**
+     * Gets the students shown in list mode.
+     * @return Copy of the listed students, or null in paged mode
+     */
+    public List<Student> getListedStudents() {
+        return rows == null ? null : new ArrayList<>(rows);
+    }
+
+    /**
+     * Gets the student shown in a row.
+     * @param row Row index
+     * @return The student, or null if its page has not been loaded yet
+     */
+    public Student getStudentAt(int row) {
+        if (rows != null) {
+            return row >= 0 && row < rows.size() ? rows.get(row) : null;
+        }
+        if (row < 0 || row >= rowCount) return null;
+        if (snapshot != null) {
+            int slot = row & (decodedRows.length - 1);
+            if (decodedRows[slot] == null || decodedRowIndex[slot] != row) {
+                decodedRows[slot] = snapshot.getStudent(row); // getValueAt asks once per cell - decode once per row
+                decodedRowIndex[slot] = row;
+            }
+            return decodedRows[slot];
+        }
+
+        Student[] page = pages.get(pageOf(row));
+        if (page == null) {
+            requestPage(pageOf(row));
+            return null;
+        }
+        int index = row % pageSize;
+        return index < page.length ? page[index] : null;
+    }
+
+    // ---------- Single-row changes ----------
+
+    /**
+     * Shows a newly added student without reloading.
+     * In paged (ID-ordered) mode new IDs go at the end; in list mode the
+     * student is appended so the user sees what they just added.
+     * @param student The saved student (ID assigned)
+     */
+    public void insertStudent(Student student) {
+        leaveSnapshot();
+        if (rows != null) {
+            rows.add(student);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+            return;
+        }
+
+        int row = rowCount;
+        if (student.getId() <= maxKnownId) {
+            showAll(rowCount + 1, maxKnownId); // Not the highest ID - position unknown, reload visible pages
+            return;
+        }
+
+        maxKnownId = student.getId();
+        rowCount++;
+        resizeBoundaries();
+        requested.clear();
+        failedUntil.clear();
+        generation++; // A load already in flight would not contain the new row
+        int page = pageOf(row);
+        Student[] data = pages.get(page);
+        if (data != null && data.length == row % pageSize) {
+            Student[] grown = Arrays.copyOf(data, data.length + 1); // Last page has room - extend it
+            grown[data.length] = student;
+            pages.put(page, grown);
+        }
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Refreshes the row showing a student after an edit.
+     * Students whose page is not cached need nothing - they load fresh.
+     * @param student The updated student
+     */
+    public void updateStudent(Student student) {
+        leaveSnapshot();
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == student.getId()) {
+                    rows.set(i, student);
+                    fireTableRowsUpdated(i, i);
+                    return;
+                }
+            }
+            return;
+        }
+
+        int row = findCachedRow(student.getId());
+        if (row >= 0) {
+            pages.get(pageOf(row))[row % pageSize] = student;
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Removes the row showing a student after a delete.
+     * In paged mode the rows after it shift up, so cached pages from the
+     * deleted row on are dropped and reloaded on demand (only the visible ones).
+     * @param id ID of the deleted student
+     */
+    public void removeStudent(int id) {
+        leaveSnapshot();
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == id) {
+                    rows.remove(i);
+                    fireTableRowsDeleted(i, i);
+                    return;
+                }
+            }
+            return;
+        }
+
+        int row = findCachedRow(id);
+        if (row < 0) {
+            showAll(Math.max(0, rowCount - 1), maxKnownId); // Row not on screen - position unknown
+            return;
+        }
+
+        int page = pageOf(row);
+        pages.keySet().removeIf(p -> p >= page);   // These pages shifted by one row
+        requested.clear();
+        failedUntil.clear();
+        generation++;                              // Drop loads started before the shift
+        rowCount--;
+        resizeBoundaries();
+        for (int p = page + 1; p < pageAfterIds.length; p++) {
+            pageAfterIds[p] = -1;                  // Start IDs after the deleted row moved
+        }
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Merges rows changed elsewhere (e.g. at another desk) into the table.
+     * Cached rows are updated or removed in place and new IDs are appended,
+     * so the selection and scroll position survive. In list mode only rows
+     * already shown are updated or removed. Applying the same change twice
+     * has no effect.
+     * @param changes Changes since the last sync
+     */
+    public void applyChanges(ChangeSet changes) {
+        leaveSnapshot();
+        for (int id : changes.getDeletedIds()) {
+            if (rows != null || findCachedRow(id) >= 0) {
+                removeStudent(id); // Off-screen deletes in paged mode are settled by the count below
+            }
+        }
+        for (Student student : changes.getChanged()) { // In ID order
+            if (rows == null && student.getId() > maxKnownId) {
+                insertStudent(student);
+            } else {
+                updateStudent(student);
+            }
+        }
+
+        if (rows == null && changes.getRowCount() >= 0 && changes.getRowCount() != rowCount) {
+            showAll(changes.getRowCount(), maxKnownId); // Rows deleted off-screen - positions moved, reload
+        }
+    }
+
+    /**
+     * Finds the row showing a student, if it is loaded.
+     * @param id Student ID
+     * @return Row index, or -1 if the student is not loaded
+     */
+    public int findRow(int id) {
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == id) return i;
+            }
+            return -1;
+        }
+        if (snapshot != null) return snapshot.findRow(id);
+        return findCachedRow(id);
+    }
+
+    /**
+     * Switches from snapshot to paged mode before a change is applied.
+     * The pages on screen are filled from the snapshot, so the rows do not
+     * blink; the change (and later ones) bring them up to date, and other
+     * pages load from the database as usual.
+     */
+    private void leaveSnapshot() {
+        if (snapshot == null) return;
+        RosterSnapshot roster = snapshot;
+        snapshot = null;
+        Arrays.fill(decodedRows, null);
+        pages.clear();
+        requested.clear();
+        failedUntil.clear();
+        generation++;
+        pageAfterIds = new int[0];
+        resizeBoundaries(); // rowCount and maxKnownId carry over from the snapshot
+
+        int lastPage = Math.min(pageOf(lastVisibleRow) + 1, pageAfterIds.length - 1);
+        for (int page = pageOf(firstVisibleRow); page <= lastPage; page++) {
+            int first = page * pageSize;
+            Student[] data = new Student[Math.min(pageSize, rowCount - first)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = roster.getStudent(first + i);
+            }
+            pages.put(page, data);
+            pageAfterIds[page] = first == 0 ? 0 : roster.getId(first - 1);
+            if (page + 1 < pageAfterIds.length && data.length > 0) {
+                pageAfterIds[page + 1] = data[data.length - 1].getId();
+            }
+        }
+    }
+
+    /**
+     * Finds the row of a student among the cached pages.
+     * Pages are in ID order, so each page is checked by range and binary search.
+     * @return Row index, or -1 if the student is not in a cached page
+     */
+    private int findCachedRow(int id) {
+        for (Map.Entry<Integer, Student[]> entry : pages.entrySet()) {
+            Student[] data = entry.getValue();
+            if (data.length == 0 || id < data[0].getId() || id > data[data.length - 1].getId()) continue;
+
+            int low = 0;
+            int high = data.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = data[mid].getId();
+                if (midId < id) low = mid + 1;
+                else if (midId > id) high = mid - 1;
+                else return entry.getKey() * pageSize + mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resizes the page boundary table after the row count changed.
+     */
+    private void resizeBoundaries() {
+        int pageCount = (rowCount + pageSize - 1) / pageSize;
+        if (pageCount == pageAfterIds.length) return;
+        int oldLength = pageAfterIds.length;
+        pageAfterIds = Arrays.copyOf(pageAfterIds, pageCount);
+        for (int p = oldLength; p < pageCount; p++) {
+            pageAfterIds[p] = -1;
+        }
+        if (pageCount > 0 && oldLength == 0) pageAfterIds[0] = 0;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows != null ? rows.size() : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnIndex == 0 || columnIndex == 2) return Integer.class;
+        if (columnIndex == 5) return Object.class; // Grade, or legacy grade text (see getValueAt)
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Student student = getStudentAt(row);
+        if (student == null) return null; // Not loaded yet - rendered blank
+
+        switch (column) {
+            case 0: return student.getId();
+            case 1: return student.getName();
+            case 2: return student.getAge();
+            case 3: return student.getEmail();
+            case 4: return student.getCourse();
+            case 5: return student.getGrade() != null ? student.getGrade() : student.getGradeLabel(); // Legacy text as stored
+            default: return null;
+        }
+    }
+
+    // ---------- Page loading ----------
+
+    private int pageOf(int row) {
+        return row / pageSize;
+    }
+
+    private void requestPage(int page) {
+        if (page < 0 || page >= pageAfterIds.length) return;
+        if (pages.containsKey(page)) return; // Cached
+        Long retryAt = failedUntil.get(page);
+        if (retryAt != null && System.nanoTime() - retryAt < 0) return; // Failed recently - wait for the retry
+        if (!requested.add(page)) return;    // Already on its way
+
+        final int gen = generation;
+        final int knownAfterId = pageAfterIds[page];
+        final Student[] previous = page > 0 ? pages.get(page - 1) : null;
+        final int afterId = knownAfterId >= 0 ? knownAfterId
+            : previous != null && previous.length > 0 ? previous[previous.length - 1].getId() : -1;
+
+        studentService.callAsync(() -> {
+            if (!isNearViewport(page)) return null; // Scrolled away before the load started
+
+            int startAfter = afterId;
+            if (startAfter < 0) {
+                // Jumped far down: find the ID just before this page via the primary key index
+                startAfter = studentService.getStudentIdAtOffset(page * pageSize - 1);
+            }
+            List<Student> loaded = startAfter < 0 ? List.of()
+                : studentService.getPersonsPage(startAfter, pageSize);
+            return new LoadedPage(startAfter, loaded.toArray(new Student[0]));
+        }).whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            if (gen != generation) return; // Model was reset while loading
+            requested.remove(page);        // Skipped pages are retried on next paint
+            if (error != null) {
+                pageFailed(page, error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            } else if (loaded != null) {
+                if (failedUntil.remove(page) != null || retryMillis > MIN_RETRY_MILLIS) {
+                    retryMillis = MIN_RETRY_MILLIS;
+                    if (failedUntil.isEmpty() && pageErrorListener != null) pageErrorListener.accept(null);
+                }
+                pageLoaded(page, loaded.afterId, loaded.rows);
+            }
+        }));
+    }
+
+    /**
+     * Holds off reloading a failed page so an unreachable database is not
+     * queried on every paint, and repaints its rows once the wait is over
+     * (which requests it again if it is still on screen).
+     */
+    private void pageFailed(int page, Throwable error) {
+        final int gen = generation;
+        long delay = retryMillis;
+        retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+        failedUntil.put(page, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+        if (pageErrorListener != null) pageErrorListener.accept(error);
+
+        Timer retry = new Timer((int) delay, e -> {
+            if (gen != generation) return; // Model was reset meanwhile
+            int firstRow = page * pageSize;
+            int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+            if (lastRow >= firstRow) fireTableRowsUpdated(firstRow, lastRow);
+        });
+        retry.setRepeats(false);
+        retry.start();
+    }
+
+    private boolean isNearViewport(int page) {
+        return page >= pageOf(firstVisibleRow) - 1 && page <= pageOf(lastVisibleRow) + 1;
+    }
+
+    private void pageLoaded(int page, int afterId, Student[] data) {
+        pages.put(page, data);
+
+        // Remember keyset boundaries so neighbouring pages can seek directly
+        pageAfterIds[page] = afterId;
+        if (data.length > 0 && page + 1 < pageAfterIds.length) {
+            pageAfterIds[page + 1] = data[data.length - 1].getId();
+        }
+
+        int firstRow = page * pageSize;
+        int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+        if (lastRow >= firstRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    /**
+     * Result of a background page load.
+     */
+    private static final class LoadedPage {
+        final int afterId;
+        final Student[] rows;
+
+        LoadedPage(int afterId, Student[] rows) {
+            this.afterId = afterId;
+            this.rows = rows;
+        }
+    }
+}
@@ -199,7 +199,8 @@ CREATE TABLE `students` (
   `email` varchar(100) NOT NULL,
   `course` varchar(50) DEFAULT NULL,
   `grade` char(2) DEFAULT NULL,
-  `registration_date` timestamp NOT NULL DEFAULT current_timestamp()
+  `registration_date` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 --
@@ -216,6 +217,18 @@ INSERT INTO `students` (`id`, `name`, `age`, `email`, `course`, `grade`, `regist
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `students_deleted`
+-- (tombstones of deleted students, read by the delta refresh)
+--
+
+CREATE TABLE `students_deleted` (
+  `id` int(11) NOT NULL,
+  `deleted_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `users`
 --
@@ -306,7 +319,17 @@ ALTER TABLE `settings`
 --
 ALTER TABLE `students`
   ADD PRIMARY KEY (`id`),
-  ADD UNIQUE KEY `email` (`email`);
+  ADD UNIQUE KEY `email` (`email`),
+  ADD KEY `idx_students_name` (`name`),
+  ADD KEY `idx_students_course` (`course`),
+  ADD KEY `idx_students_updated_at` (`updated_at`);
+
+--
+-- Indexes for table `students_deleted`
+--
+ALTER TABLE `students_deleted`
+  ADD PRIMARY KEY (`id`),
+  ADD KEY `idx_students_deleted_at` (`deleted_at`);
 
 --
 -- Indexes for table `users`